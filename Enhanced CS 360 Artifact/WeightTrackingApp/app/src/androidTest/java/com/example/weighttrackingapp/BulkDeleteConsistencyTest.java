@@ -0,0 +1,123 @@
+package com.example.weighttrackingapp;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.weighttrackingapp.models.UserRealm;
+import com.example.weighttrackingapp.models.WeightEntryRealm;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.realm.Realm;
+import io.realm.Sort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumented test: a bulk delete that removes the lightest, heaviest and
+ * newest entries must leave the incrementally maintained aggregates, trend
+ * and current weight equal to a from-scratch rebuild.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BulkDeleteConsistencyTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final double[] WEIGHTS = {82.0, 81.4, 79.0, 81.1, 80.6, 86.5, 80.2, 79.9, 79.6, 79.3};
+
+    private final DatabaseHelper databaseHelper =
+            new DatabaseHelper(InstrumentationRegistry.getInstrumentation().getTargetContext());
+    private int userId;
+    private long[] entryIds;
+
+    @Before
+    public void setUp() throws Exception {
+        RealmCompaction.whenReady().get(30, TimeUnit.SECONDS);
+
+        userId = (int) databaseHelper.createUser("bulk-delete-" + System.nanoTime(), "password1");
+        assertTrue(userId > 0);
+
+        long start = System.currentTimeMillis() - WEIGHTS.length * DAY;
+        entryIds = new long[WEIGHTS.length];
+        for (int i = 0; i < WEIGHTS.length; i++) {
+            entryIds[i] = databaseHelper.recordWeighIn(userId, WEIGHTS[i], start + i * DAY).getEntryId();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.deleteUser(userId);
+    }
+
+    @Test
+    public void deletingBoundaryEntriesMatchesRebuild() {
+        // Lightest (79.0), heaviest (86.5), newest, and one ordinary entry
+        List<Integer> doomed = Arrays.asList((int) entryIds[2], (int) entryIds[5], (int) entryIds[9], (int) entryIds[3]);
+        assertEquals(4, databaseHelper.deleteWeightEntries(userId, doomed));
+
+        Realm realm = RealmScope.acquire();
+        try {
+            UserRealm user = realm.where(UserRealm.class).equalTo("id", userId).findFirst();
+
+            int entryCount = user.getEntryCount();
+            int latestEntryId = user.getLatestEntryId();
+            long latestTimestamp = user.getLatestTimestampMillis();
+            long firstTimestamp = user.getFirstTimestampMillis();
+            double minWeight = user.getMinWeight();
+            double maxWeight = user.getMaxWeight();
+            double weightSum = user.getWeightSum();
+            double trendWeight = user.getTrendWeight();
+            int trendEntryId = user.getTrendEntryId();
+            double currentWeight = user.getCurrentWeight();
+            Map<Integer, Double> entryTrends = trendsById(realm);
+
+            // Rebuild from scratch inside a transaction that is rolled back afterwards
+            realm.beginTransaction();
+            try {
+                UserAggregates.recompute(user);
+                WeightTrend.recompute(user);
+                WeightEntryRealm newest = DatabaseHelper.entriesOf(realm, userId)
+                        .sort(new String[]{"timestampMillis", "id"}, new Sort[]{Sort.DESCENDING, Sort.DESCENDING})
+                        .findFirst();
+
+                assertEquals(WEIGHTS.length - doomed.size(), user.getEntryCount());
+                assertEquals(user.getEntryCount(), entryCount);
+                assertEquals(user.getLatestEntryId(), latestEntryId);
+                assertEquals(user.getLatestTimestampMillis(), latestTimestamp);
+                assertEquals(user.getFirstTimestampMillis(), firstTimestamp);
+                assertEquals(user.getMinWeight(), minWeight, 1e-9);
+                assertEquals(user.getMaxWeight(), maxWeight, 1e-9);
+                assertEquals(user.getWeightSum(), weightSum, 1e-9);
+                assertEquals(user.getTrendWeight(), trendWeight, 1e-9);
+                assertEquals(user.getTrendEntryId(), trendEntryId);
+                assertEquals(newest.getWeight(), currentWeight, 1e-9);
+                Map<Integer, Double> rebuiltTrends = trendsById(realm);
+                assertEquals(rebuiltTrends.keySet(), entryTrends.keySet());
+                for (Map.Entry<Integer, Double> trend : rebuiltTrends.entrySet()) {
+                    assertEquals(trend.getValue(), entryTrends.get(trend.getKey()), 1e-9);
+                }
+            } finally {
+                realm.cancelTransaction();
+            }
+        } finally {
+            RealmScope.release(realm);
+        }
+    }
+
+    private Map<Integer, Double> trendsById(Realm realm) {
+        Map<Integer, Double> trends = new HashMap<>();
+        for (WeightEntryRealm entry : DatabaseHelper.entriesOf(realm, userId).findAll()) {
+            trends.put(entry.getId(), entry.getTrendWeight());
+        }
+        return trends;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.weighttrackingapp;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.weighttrackingapp.models.UserRealm;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.realm.Realm;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Instrumented benchmark comparing a Realm open/close per read (the old
+ * DatabaseHelper pattern) against reads through a pinned RealmScope handle.
+ * Results are written to logcat under the RealmScopeBenchmark tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RealmScopeBenchmark {
+
+    private static final String TAG = "RealmScopeBenchmark";
+    private static final int ITERATIONS = 2_000;
+    private static final int WARMUP = 200;
+
+    @Test
+    public void scopedHandle_vs_perCallOpenClose() {
+        // Warm up both paths so class loading and JIT do not skew the first run
+        runPerCall(WARMUP);
+        runScoped(WARMUP);
+
+        long perCallNanos = runPerCall(ITERATIONS);
+        long scopedNanos = runScoped(ITERATIONS);
+
+        Log.i(TAG, String.format("per-call open/close: %.2f us/read", perCallNanos / 1000.0 / ITERATIONS));
+        Log.i(TAG, String.format("scoped handle:       %.2f us/read", scopedNanos / 1000.0 / ITERATIONS));
+        Log.i(TAG, String.format("speedup:             %.1fx", (double) perCallNanos / scopedNanos));
+
+        assertEquals(0, RealmScope.referenceCount());
+    }
+
+    private long runPerCall(int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            Realm realm = Realm.getDefaultInstance();
+            try {
+                realm.where(UserRealm.class).equalTo("username", "benchmark").findFirst();
+            } finally {
+                realm.close();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long runScoped(int iterations) {
+        Realm pinned = RealmScope.acquire();
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                Realm realm = RealmScope.acquire();
+                try {
+                    realm.where(UserRealm.class).equalTo("username", "benchmark").findFirst();
+                } finally {
+                    RealmScope.release(realm);
+                }
+            }
+            return System.nanoTime() - start;
+        } finally {
+            RealmScope.release(pinned);
+        }
+    }
+}
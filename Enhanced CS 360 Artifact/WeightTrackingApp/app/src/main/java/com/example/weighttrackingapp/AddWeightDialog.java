@@ -222,73 +222,38 @@ public class AddWeightDialog extends Dialog {
             double weight = Double.parseDouble(weightStr);
             Log.d(TAG, "Parsed weight: " + weight);
 
-            // Validate weight value (this may show confirmation dialog for large changes)
-            ValidationResult validationResult = validateWeightValue(weight);
-            if (validationResult == ValidationResult.INVALID) {
-                Log.e(TAG, "Weight value validation failed - invalid range");
-                return;
-            } else if (validationResult == ValidationResult.PENDING_CONFIRMATION) {
-                Log.d(TAG, "Weight validation pending user confirmation for large change");
-                return; // Wait for user confirmation via dialog
-            }
-            // If validationResult == ValidationResult.VALID, continue with normal flow
-
-            // Get user ID
-            int userId = databaseHelper.getUserId(username);
-            Log.d(TAG, "Retrieved user ID: " + userId);
-
-            if (userId == -1) {
-                Log.e(TAG, "User not found in database: " + username);
-                showToast("Error: User not found");
-                return;
-            }
-
-            // Get previous weights for comparison
-            double previousCurrentWeight = databaseHelper.getCurrentWeight(username);
-            double goalWeight = databaseHelper.getGoalWeight(username);
-            double startingWeight = databaseHelper.getStartingWeight(username);
-
-            Log.d(TAG, "Previous weights - Current: " + previousCurrentWeight + ", Goal: " + goalWeight + ", Starting: " + startingWeight);
-
-            // Create standardized date string for database storage
-            SimpleDateFormat dbDateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-            String dbDateString = dbDateFormat.format(selectedDate.getTime());
-
-            // Create standardized time string for database storage
-            SimpleDateFormat dbTimeFormat = new SimpleDateFormat("HH:mm:ss", Locale.getDefault());
-            String dbTimeString = dbTimeFormat.format(selectedTime.getTime());
-
-            Log.d(TAG, "Database date format: " + dbDateString + ", Database time format: " + dbTimeString);
-
-            // Create weight entry with database-friendly formats
-            WeightEntry newEntry = new WeightEntry(userId, weight, dbDateString, dbTimeString, "");
-            Log.d(TAG, "Created WeightEntry: " + newEntry.toString());
-
-            // Add to database
-            long entryId = databaseHelper.addWeightEntry(newEntry);
-            Log.d(TAG, "Database insertion result - Entry ID: " + entryId);
-
-            if (entryId != -1) {
-                // Update current weight with the most recent entry by actual date/time
-                boolean weightUpdated = databaseHelper.updateCurrentWeightFromMostRecent(username);
-                Log.d(TAG, "Current weight update result: " + weightUpdated);
-
-                // Check for achievements and send notifications
-                checkAndSendNotifications(weight, previousCurrentWeight, goalWeight, startingWeight);
+            // Read user id, weights and latest entry in a single lookup, off the UI thread
+            btnAddEntry.setEnabled(false);
+            databaseHelper.getUserProfileSnapshotAsync(username).thenAccept(profile -> {
+                btnAddEntry.setEnabled(true);
+                if (!isShowing()) {
+                    return;
+                }
 
-                showToast("Weight entry added successfully!");
+                if (profile == null) {
+                    Log.e(TAG, "User not found in database: " + username);
+                    showToast("Error: User not found");
+                    return;
+                }
 
-                // Notify listener
-                if (listener != null) {
-                    listener.onEntryAdded();
+                // Validate weight value (this may show confirmation dialog for large changes)
+                ValidationResult validationResult = validateWeightValue(weight, profile);
+                if (validationResult == ValidationResult.INVALID) {
+                    Log.e(TAG, "Weight value validation failed - invalid range");
+                    return;
+                } else if (validationResult == ValidationResult.PENDING_CONFIRMATION) {
+                    Log.d(TAG, "Weight validation pending user confirmation for large change");
+                    return; // Wait for user confirmation via dialog
                 }
 
-                dismiss();
-                Log.d(TAG, "Weight entry added successfully with ID: " + entryId);
-            } else {
-                showToast("Failed to add weight entry. Please try again.");
-                Log.e(TAG, "Failed to add weight entry to database - returned -1");
-            }
+                // If validationResult == ValidationResult.VALID, continue with normal flow
+                proceedWithAdding(weight, profile);
+            }).exceptionally(e -> {
+                btnAddEntry.setEnabled(true);
+                Log.e(TAG, "Error adding weight entry: ", e);
+                showToast("Error adding weight entry: " + e.getMessage());
+                return null;
+            });
 
         } catch (NumberFormatException e) {
             Log.e(TAG, "Number format error: ", e);
@@ -300,43 +265,30 @@ public class AddWeightDialog extends Dialog {
     }
 
     //Check for achievements and send appropriate notifications
-    private void checkAndSendNotifications(double newWeight, double previousWeight, double goalWeight, double startingWeight) {
+    private void checkAndSendNotifications(WeighInResult result) {
         try {
-            Log.d(TAG, "Checking for achievements - New: " + newWeight + ", Previous: " + previousWeight + ", Goal: " + goalWeight + ", Starting: " + startingWeight);
+            Log.d(TAG, "Checking for achievements - New: " + result.getCurrentWeight() + ", Previous: " + result.getPreviousWeight()
+                    + ", Goal: " + result.getGoalWeight() + ", Starting: " + result.getStartingWeight());
 
-            // Check for goal achievement
-            if (goalWeight > 0 && newWeight <= goalWeight && previousWeight > goalWeight) {
-                // User just achieved their goal!
+            // Goal and milestone crossings were worked out in the insert transaction
+            if (result.isGoalReached()) {
                 Log.d(TAG, "Goal achievement detected!");
-                notificationHelper.showGoalAchievedNotification(goalWeight);
+                notificationHelper.showGoalAchievedNotification(result.getGoalWeight());
             }
 
-            // Check for milestone achievements (weight loss milestones)
-            if (startingWeight > 0 && newWeight < previousWeight) {
-                double previousWeightLost = startingWeight - previousWeight;
-                double newWeightLost = startingWeight - newWeight;
-
-                // Check if we crossed a 5kg milestone
-                int previousMilestone = (int) (previousWeightLost / 5) * 5;
-                int newMilestone = (int) (newWeightLost / 5) * 5;
-
-                if (newMilestone > previousMilestone && newMilestone >= 5) {
-                    // User crossed a new milestone
-                    Log.d(TAG, "Milestone achievement detected: " + newMilestone + "kg lost");
-                    notificationHelper.showMilestoneNotification(newMilestone, startingWeight, newWeight);
-                }
+            if (result.getMilestoneKg() > 0) {
+                Log.d(TAG, "Milestone achievement detected: " + result.getMilestoneKg() + "kg lost");
+                notificationHelper.showMilestoneNotification(result.getMilestoneKg(), result.getStartingWeight(), result.getCurrentWeight());
             }
 
             // Check for weight loss progress (any weight loss)
-            if (newWeight < previousWeight && previousWeight > 0) {
-                double weightLost = previousWeight - newWeight;
-                if (weightLost >= 0.5) { // At least 0.5kg lost
-                    Log.d(TAG, "Weight loss progress detected: " + weightLost + "kg");
-                }
+            double weightLost = result.getPreviousWeight() - result.getCurrentWeight();
+            if (result.getPreviousWeight() > 0 && weightLost >= 0.5) { // At least 0.5kg lost
+                Log.d(TAG, "Weight loss progress detected: " + weightLost + "kg");
             }
 
             // Send encouraging notification for consistent tracking
-            if (shouldSendEncouragementNotification()) {
+            if (shouldSendEncouragementNotification(result.getEntryCount())) {
                 Log.d(TAG, "Sending daily reminder for consistent tracking");
                 notificationHelper.showDailyReminder();
             }
@@ -347,11 +299,8 @@ public class AddWeightDialog extends Dialog {
     }
 
     //Determine if we should send an encouragement notification
-    private boolean shouldSendEncouragementNotification() {
+    private boolean shouldSendEncouragementNotification(int totalEntries) {
         try {
-            // Check if we should send encouragement
-            int totalEntries = databaseHelper.getEntryCount(username);
-
             // Send encouragement every 10 entries
             boolean shouldEncourage = (totalEntries > 0) && (totalEntries % 10 == 0);
 
@@ -405,7 +354,7 @@ public class AddWeightDialog extends Dialog {
         PENDING_CONFIRMATION // Weight needs confirmation, dialog shown
     }
 
-    private ValidationResult validateWeightValue(double weight) {
+    private ValidationResult validateWeightValue(double weight, UserProfileSnapshot profile) {
         // Check for reasonable weight range (20kg to 300kg)
         if (weight < 20 || weight > 300) {
             tilWeight.setError("Weight should be between 20-300 kg");
@@ -414,7 +363,7 @@ public class AddWeightDialog extends Dialog {
 
         // Check if the weight is significantly different from the last entry
         try {
-            WeightEntry lastEntry = databaseHelper.getMostRecentWeightEntry(username);
+            WeightEntry lastEntry = profile.getLatestEntry();
             if (lastEntry != null) {
                 double difference = Math.abs(weight - lastEntry.getWeight());
                 if (difference > 10) { // More than 10kg difference
@@ -424,7 +373,7 @@ public class AddWeightDialog extends Dialog {
                                     weight, lastEntry.getWeight()))
                             .setPositiveButton("Yes, Add Entry", (dialog, which) -> {
                                 // User confirmed, proceed with adding
-                                proceedWithAdding(weight);
+                                proceedWithAdding(weight, profile);
                             })
                             .setNegativeButton("No, Edit", null)
                             .show();
@@ -439,50 +388,50 @@ public class AddWeightDialog extends Dialog {
         return ValidationResult.VALID;
     }
 
-    private void proceedWithAdding(double weight) {
+    private void proceedWithAdding(double weight, UserProfileSnapshot profile) {
         try {
-            Log.d(TAG, "Proceeding with confirmed weight: " + weight);
+            Log.d(TAG, "Proceeding with weight: " + weight);
 
-            // Get user ID
-            int userId = databaseHelper.getUserId(username);
-            if (userId == -1) {
-                showToast("Error: User not found");
-                return;
-            }
-
-            // Get previous weights for notification comparison
-            double previousCurrentWeight = databaseHelper.getCurrentWeight(username);
-            double goalWeight = databaseHelper.getGoalWeight(username);
-            double startingWeight = databaseHelper.getStartingWeight(username);
-
-            // Create standardized date/time strings
-            SimpleDateFormat dbDateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-            String dbDateString = dbDateFormat.format(selectedDate.getTime());
+            int userId = profile.getUserId();
+            Log.d(TAG, "Retrieved user ID: " + userId);
 
-            SimpleDateFormat dbTimeFormat = new SimpleDateFormat("HH:mm:ss", Locale.getDefault());
-            String dbTimeString = dbTimeFormat.format(selectedTime.getTime());
+            // Combine the picked date and time into the entry's timestamp
+            Calendar timestamp = (Calendar) selectedDate.clone();
+            timestamp.set(Calendar.HOUR_OF_DAY, selectedTime.get(Calendar.HOUR_OF_DAY));
+            timestamp.set(Calendar.MINUTE, selectedTime.get(Calendar.MINUTE));
+            timestamp.set(Calendar.SECOND, selectedTime.get(Calendar.SECOND));
+            timestamp.set(Calendar.MILLISECOND, 0);
 
-            WeightEntry newEntry = new WeightEntry(userId, weight, dbDateString, dbTimeString, "");
+            // Insert, current weight update and before/after capture in one transaction, off the UI thread
+            btnAddEntry.setEnabled(false);
+            databaseHelper.recordWeighInAsync(userId, weight, timestamp.getTimeInMillis()).thenAccept(result -> {
+                btnAddEntry.setEnabled(true);
 
-            long entryId = databaseHelper.addWeightEntry(newEntry);
+                if (result != null) {
+                    Log.d(TAG, "Database insertion result - Entry ID: " + result.getEntryId());
 
-            if (entryId != -1) {
-                // Update current weight with the most recent entry by actual date/time
-                databaseHelper.updateCurrentWeightFromMostRecent(username);
+                    // Check for achievements and send notifications
+                    checkAndSendNotifications(result);
 
-                //Check for achievements and send notifications
-                checkAndSendNotifications(weight, previousCurrentWeight, goalWeight, startingWeight);
+                    showToast("Weight entry added successfully!");
 
-                showToast("Weight entry added successfully!");
+                    // Notify listener
+                    if (listener != null) {
+                        listener.onEntryAdded();
+                    }
 
-                if (listener != null) {
-                    listener.onEntryAdded();
+                    dismiss();
+                    Log.d(TAG, "Weight entry added successfully");
+                } else {
+                    showToast("Failed to add weight entry. Please try again.");
+                    Log.e(TAG, "Failed to add weight entry to database");
                 }
-
-                dismiss();
-            } else {
-                showToast("Failed to add weight entry. Please try again.");
-            }
+            }).exceptionally(e -> {
+                btnAddEntry.setEnabled(true);
+                showToast("Error adding weight entry: " + e.getMessage());
+                Log.e(TAG, "Error in proceedWithAdding: ", e);
+                return null;
+            });
         } catch (Exception e) {
             showToast("Error adding weight entry: " + e.getMessage());
             Log.e(TAG, "Error in proceedWithAdding: ", e);
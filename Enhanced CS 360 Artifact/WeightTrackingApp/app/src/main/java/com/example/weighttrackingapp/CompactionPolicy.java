@@ -0,0 +1,45 @@
+package com.example.weighttrackingapp;
+
+/**
+ * Decides whether the Realm file is fragmented enough to compact at launch.
+ *
+ * Files below minFileBytes are never compacted on fragmentation alone;
+ * an explicit request (e.g. after account deletion) always compacts.
+ */
+final class CompactionPolicy {
+
+    static final int DEFAULT_FREE_PERCENT = 50;
+    static final long DEFAULT_MIN_FILE_BYTES = 4L * 1024 * 1024;
+
+    private final int freePercentThreshold;
+    private final long minFileBytes;
+
+    CompactionPolicy(int freePercentThreshold, long minFileBytes) {
+        this.freePercentThreshold = freePercentThreshold;
+        this.minFileBytes = minFileBytes;
+    }
+
+    boolean shouldCompact(long totalBytes, long usedBytes, boolean requested) {
+        if (totalBytes <= 0) {
+            return false;
+        }
+        if (requested) {
+            return true;
+        }
+        if (totalBytes < minFileBytes) {
+            return false;
+        }
+        return freePercent(totalBytes, usedBytes) >= freePercentThreshold;
+    }
+
+    /**
+     * Share of the file not holding live data, 0-100
+     */
+    static int freePercent(long totalBytes, long usedBytes) {
+        if (totalBytes <= 0) {
+            return 0;
+        }
+        long freeBytes = Math.max(0, totalBytes - usedBytes);
+        return (int) (freeBytes * 100 / totalBytes);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.weighttrackingapp;
 
+import android.content.Intent;
 import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.util.Log;
@@ -8,6 +9,8 @@ import android.widget.ImageButton;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.activity.OnBackPressedCallback;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -15,17 +18,28 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import io.realm.OrderedCollectionChangeSet;
 
 public class DailyEntriesActivity extends AppCompatActivity {
 
     private static final String TAG = "DailyEntriesActivity";
     private static final String PREFS_NAME = "WeightTrackerPrefs";
+    private static final int PAGE_SIZE = 50;
+    private static final int PREFETCH_DISTANCE = 10; // Rows from the end that trigger the next page
 
     // UI Components
-    private ImageButton btnBack;
+    private ImageButton btnBack, btnDeleteSelected;
+    private TextView tvTitle;
     private TextView tvTotalEntries, tvWeightLost, tvStreak;
+    private TextView tvAverageWeight, tvWeeklyRate, tvMinWeight, tvMinWeightDate,
+            tvMaxWeight, tvMaxWeightDate, tvLongestGap, tvLongestGapDate;
     private RecyclerView recyclerViewAllEntries;
     private FloatingActionButton fabAddEntry;
 
@@ -33,12 +47,36 @@ public class DailyEntriesActivity extends AppCompatActivity {
     private DatabaseHelper databaseHelper;
     private SharedPreferences sharedPreferences;
     private String currentUsername;
+    private int currentUserId; // Session id from login; database calls go by id
     private DailyEntryAdapter entryAdapter;
-    private List<WeightEntry> allEntries;
+    private List<WeightEntry> allEntries; // Pages loaded so far, newest first
+
+    // Paging state
+    private int totalEntryCount;
+    private int loadGeneration; // Bumped on reload so stale page results are dropped
+    private boolean isLoadingPage;
+    private boolean hasMorePages = true;
+
+    // Reloads the list only when the user's entries change
+    private RealmSubscription entriesSubscription;
+
+    // Back leaves selection mode before it leaves the screen
+    private final OnBackPressedCallback selectionBackCallback = new OnBackPressedCallback(false) {
+        @Override
+        public void handleOnBackPressed() {
+            entryAdapter.clearSelection();
+        }
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+
+        // Restored after process death before Realm finished opening: start over at the launcher
+        if (!LoginActivity.ensureRealmReady(this)) {
+            return;
+        }
+
         setContentView(R.layout.activity_daily_entries);
 
         Log.d(TAG, "DailyEntriesActivity onCreate started");
@@ -56,8 +94,8 @@ public class DailyEntriesActivity extends AppCompatActivity {
             // Set up RecyclerView
             setupRecyclerView();
 
-            // Load all entries
-            loadAllEntries();
+            // Load entries now and again whenever they change
+            observeEntries();
 
             // Update statistics
             updateStatistics();
@@ -74,6 +112,7 @@ public class DailyEntriesActivity extends AppCompatActivity {
     private void initializeData() {
         try {
             databaseHelper = new DatabaseHelper(this);
+            databaseHelper.open(); // One Realm handle for this activity's lifetime
             sharedPreferences = getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
             currentUsername = sharedPreferences.getString("username", "");
 
@@ -81,6 +120,8 @@ public class DailyEntriesActivity extends AppCompatActivity {
                 throw new RuntimeException("No logged in user found");
             }
 
+            currentUserId = LoginActivity.getLoggedInUserId(sharedPreferences);
+
             Log.d(TAG, "Data initialized for user: " + currentUsername);
         } catch (Exception e) {
             Log.e(TAG, "Error initializing data: ", e);
@@ -88,13 +129,68 @@ public class DailyEntriesActivity extends AppCompatActivity {
         }
     }
 
+    private void observeEntries() {
+        if (currentUserId == -1) {
+            // MainActivity normally resolves this first; only old sessions get here
+            databaseHelper.getUserIdAsync(currentUsername).thenAccept(userId -> {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
+                if (userId == -1) {
+                    Log.e(TAG, "No user found for session: " + currentUsername);
+                    redirectToLogin();
+                    return;
+                }
+                currentUserId = userId;
+                LoginActivity.saveLoggedInUserId(sharedPreferences, userId);
+                observeEntries();
+            });
+            return;
+        }
+
+        entriesSubscription = databaseHelper.observeEntries(currentUserId, this::onEntriesChanged);
+    }
+
+    private void onEntriesChanged(OrderedCollectionChangeSet changeSet) {
+        // Rows below the loaded pages are read when scrolled to; once every row
+        // is loaded, a change anywhere can alter what is shown
+        if (hasMorePages && !DatabaseHelper.changesWithin(changeSet, allEntries.size())) {
+            loadStatistics();
+            return;
+        }
+        loadAllEntries();
+    }
+
+    private void redirectToLogin() {
+        try {
+            // The stored session names a user that no longer exists
+            LoginActivity.logout(sharedPreferences);
+            Intent intent = new Intent(this, LoginActivity.class);
+            intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+            startActivity(intent);
+            finish();
+        } catch (Exception e) {
+            Log.e(TAG, "Error redirecting to login: ", e);
+        }
+    }
+
     private void initializeViews() {
         try {
             // Header
             btnBack = findViewById(R.id.btnBack);
+            btnDeleteSelected = findViewById(R.id.btnDeleteSelected);
+            tvTitle = findViewById(R.id.tvTitle);
 
             // Statistics
             tvTotalEntries = findViewById(R.id.tvTotalEntries);
+            tvAverageWeight = findViewById(R.id.tvAverageWeight);
+            tvWeeklyRate = findViewById(R.id.tvWeeklyRate);
+            tvMinWeight = findViewById(R.id.tvMinWeight);
+            tvMinWeightDate = findViewById(R.id.tvMinWeightDate);
+            tvMaxWeight = findViewById(R.id.tvMaxWeight);
+            tvMaxWeightDate = findViewById(R.id.tvMaxWeightDate);
+            tvLongestGap = findViewById(R.id.tvLongestGap);
+            tvLongestGapDate = findViewById(R.id.tvLongestGapDate);
 
             // RecyclerView
             recyclerViewAllEntries = findViewById(R.id.recyclerViewAllEntries);
@@ -114,9 +210,17 @@ public class DailyEntriesActivity extends AppCompatActivity {
             // Back button
             btnBack.setOnClickListener(v -> {
                 Log.d(TAG, "Back button clicked");
-                finish();
+                if (entryAdapter.isSelectionMode()) {
+                    entryAdapter.clearSelection();
+                } else {
+                    finish();
+                }
             });
 
+            // Bulk delete of the selected entries
+            btnDeleteSelected.setOnClickListener(v -> deleteSelectedEntries());
+            getOnBackPressedDispatcher().addCallback(this, selectionBackCallback);
+
             // Add entry FAB
             fabAddEntry.setOnClickListener(v -> {
                 Log.d(TAG, "Add entry FAB clicked");
@@ -133,18 +237,32 @@ public class DailyEntriesActivity extends AppCompatActivity {
         try {
             allEntries = new ArrayList<>();
             entryAdapter = new DailyEntryAdapter(this, allEntries);
+            entryAdapter.setSelectionEnabled(true); // Long press selects rows for bulk delete
 
             // Set delete click listener
             entryAdapter.setOnDeleteClickListener(position -> {
-                if (position >= 0 && position < allEntries.size()) {
-                    WeightEntry entry = allEntries.get(position);
-                    deleteWeightEntry(entry, position);
+                WeightEntry entry = entryAdapter.getEntry(position);
+                if (entry != null) {
+                    deleteWeightEntry(entry);
                 }
             });
 
-            recyclerViewAllEntries.setLayoutManager(new LinearLayoutManager(this));
+            entryAdapter.setOnSelectionChangedListener(this::updateSelectionHeader);
+
+            LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+            recyclerViewAllEntries.setLayoutManager(layoutManager);
             recyclerViewAllEntries.setAdapter(entryAdapter);
 
+            // Fetch the next page as the user nears the end of what is loaded
+            recyclerViewAllEntries.addOnScrollListener(new RecyclerView.OnScrollListener() {
+                @Override
+                public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                    if (dy > 0 && layoutManager.findLastVisibleItemPosition() >= allEntries.size() - PREFETCH_DISTANCE) {
+                        loadNextPage();
+                    }
+                }
+            });
+
             Log.d(TAG, "RecyclerView set up successfully");
         } catch (Exception e) {
             Log.e(TAG, "Error setting up RecyclerView: ", e);
@@ -152,29 +270,86 @@ public class DailyEntriesActivity extends AppCompatActivity {
     }
 
     private void loadAllEntries() {
-        try {
-            Log.d(TAG, "Loading all entries for user: " + currentUsername);
+        Log.d(TAG, "Loading entries for user: " + currentUsername);
 
-            // Get all weight entries from database
-            List<WeightEntry> entries = databaseHelper.getAllWeightEntries(currentUsername);
+        loadStatistics();
 
-            Log.d(TAG, "Loaded " + entries.size() + " entries from database");
-
-            allEntries.clear();
-            allEntries.addAll(entries);
+        // Re-read as many rows as are already shown so the diff keeps the scroll position;
+        // any in-flight page is discarded
+        loadGeneration++;
+        isLoadingPage = false;
+        hasMorePages = true;
+        loadPage(0, Math.max(PAGE_SIZE, allEntries.size()), true);
+    }
 
-            if (entryAdapter != null) {
-                entryAdapter.notifyDataSetChanged();
+    // Count and statistics cover the whole history, so every change refreshes them
+    private void loadStatistics() {
+        // Total for the statistics header without loading every row
+        databaseHelper.getEntryCountAsync(currentUserId).thenAccept(count -> {
+            if (!isFinishing() && !isDestroyed()) {
+                totalEntryCount = count;
+                updateStatistics();
             }
+        });
+
+        // Full-history statistics; served from cache unless the entries changed
+        databaseHelper.getWeightStatisticsAsync(currentUserId)
+                .thenAccept(this::displayWeightStatistics)
+                .exceptionally(e -> {
+                    Log.e(TAG, "Error loading weight statistics: ", e);
+                    return null;
+                });
+    }
 
-            Log.d(TAG, "All entries loaded successfully");
-        } catch (Exception e) {
-            Log.e(TAG, "Error loading all entries: ", e);
-            showToast("Error loading entries");
+    private void loadNextPage() {
+        loadPage(allEntries.size(), PAGE_SIZE, false);
+    }
 
-            // Add sample data as fallback
-            addSampleEntries();
+    private void loadPage(int offset, int pageSize, boolean replace) {
+        if (isLoadingPage || !hasMorePages) {
+            return;
         }
+
+        isLoadingPage = true;
+        final int generation = loadGeneration;
+
+        databaseHelper.getWeightEntriesPageAsync(currentUserId, offset, pageSize)
+                .thenAccept(page -> {
+                    if (isFinishing() || isDestroyed() || generation != loadGeneration) {
+                        return;
+                    }
+
+                    isLoadingPage = false;
+                    hasMorePages = page.size() == pageSize;
+
+                    if (replace) {
+                        allEntries.clear();
+                    }
+                    allEntries.addAll(page);
+
+                    // Diffed off the UI thread; only inserted or changed rows are bound
+                    if (entryAdapter != null) {
+                        entryAdapter.updateEntries(allEntries);
+                    }
+
+                    Log.d(TAG, "Loaded page of " + page.size() + " entries at offset " + offset);
+                })
+                .exceptionally(e -> {
+                    if (generation != loadGeneration) {
+                        return null;
+                    }
+                    isLoadingPage = false;
+                    Log.e(TAG, "Error loading entries page: ", e);
+                    showToast("Error loading entries");
+
+                    // Add sample data as fallback
+                    if (allEntries.isEmpty()) {
+                        addSampleEntries();
+                        totalEntryCount = allEntries.size();
+                        updateStatistics();
+                    }
+                    return null;
+                });
     }
 
     private void addSampleEntries() {
@@ -194,7 +369,7 @@ public class DailyEntriesActivity extends AppCompatActivity {
             allEntries.add(new WeightEntry(10, 1, 77.5, "August 7", "9:30 AM", ""));
 
             if (entryAdapter != null) {
-                entryAdapter.notifyDataSetChanged();
+                entryAdapter.updateEntries(allEntries);
             }
 
             Log.d(TAG, "Sample entries added");
@@ -205,8 +380,8 @@ public class DailyEntriesActivity extends AppCompatActivity {
 
     private void updateStatistics() {
         try {
-            // Total entries
-            int totalEntries = allEntries.size();
+            // Total entries (from the database, not just the loaded pages)
+            int totalEntries = totalEntryCount;
             tvTotalEntries.setText(String.valueOf(totalEntries));
 
             Log.d(TAG, "Statistics updated - Total entries: " + totalEntries);
@@ -218,35 +393,86 @@ public class DailyEntriesActivity extends AppCompatActivity {
         }
     }
 
-    private void deleteWeightEntry(WeightEntry entry, int position) {
+    private void displayWeightStatistics(WeightStatistics statistics) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+
+        try {
+            if (statistics == null || !statistics.hasEntries()) {
+                tvAverageWeight.setText("--");
+                tvWeeklyRate.setText("--");
+                tvMinWeight.setText("--");
+                tvMinWeightDate.setText("");
+                tvMaxWeight.setText("--");
+                tvMaxWeightDate.setText("");
+                tvLongestGap.setText("--");
+                tvLongestGapDate.setText("");
+                return;
+            }
+
+            SimpleDateFormat dateFormat = new SimpleDateFormat("MMM d, yyyy", Locale.getDefault());
+
+            tvAverageWeight.setText(String.format("%.1f ± %.1f", statistics.getMeanWeight(), statistics.getStandardDeviation()));
+            tvWeeklyRate.setText(statistics.getCount() > 1
+                    ? String.format("%+.2f kg", statistics.getWeeklyRate())
+                    : "--");
+
+            tvMinWeight.setText(String.format("%.1f kg", statistics.getMinWeight()));
+            tvMinWeightDate.setText(dateFormat.format(new Date(statistics.getMinTimestampMillis())));
+            tvMaxWeight.setText(String.format("%.1f kg", statistics.getMaxWeight()));
+            tvMaxWeightDate.setText(dateFormat.format(new Date(statistics.getMaxTimestampMillis())));
+
+            if (statistics.getLongestGapMillis() > 0) {
+                long gapDays = statistics.getLongestGapMillis() / (24L * 60 * 60 * 1000);
+                tvLongestGap.setText(gapDays == 1 ? "1 day" : gapDays + " days");
+                tvLongestGapDate.setText("from " + dateFormat.format(new Date(statistics.getLongestGapStartMillis())));
+            } else {
+                tvLongestGap.setText("--");
+                tvLongestGapDate.setText("");
+            }
+
+            Log.d(TAG, "Weight statistics displayed: " + statistics);
+        } catch (Exception e) {
+            Log.e(TAG, "Error displaying weight statistics: ", e);
+        }
+    }
+
+    private void deleteWeightEntry(WeightEntry entry) {
         try {
             new AlertDialog.Builder(this)
                     .setTitle("Delete Entry")
                     .setMessage("Are you sure you want to delete this weight entry?")
                     .setPositiveButton("Delete", (dialog, which) -> {
-                        try {
-                            Log.d(TAG, "Attempting to delete entry ID: " + entry.getId() + " for user: " + currentUsername);
-                            boolean deleted = databaseHelper.deleteWeightEntry(entry.getId());
-                            if (deleted) {
-                                allEntries.remove(position);
-                                entryAdapter.notifyItemRemoved(position);
-
-                                // Update statistics
-                                updateStatistics();
-
-                                // Update current weight if this was the most recent entry
-                                updateCurrentWeightIfNeeded();
-
-                                showToast("Entry deleted");
-                                Log.d(TAG, "Entry deleted successfully");
-                            } else {
-                                showToast("Failed to delete entry - entry not found in database");
-                                Log.e(TAG, "Failed to delete entry from database - ID: " + entry.getId() + " not found");
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error deleting entry: ", e);
-                            showToast("Error deleting entry");
-                        }
+                        Log.d(TAG, "Attempting to delete entry ID: " + entry.getId() + " for user: " + currentUsername);
+                        databaseHelper.queueWeightEntryDelete(entry.getId())
+                                .thenAccept(deleted -> {
+                                    if (isFinishing() || isDestroyed()) {
+                                        return;
+                                    }
+
+                                    if (deleted) {
+                                        // Position may have shifted while the delete was running
+                                        if (allEntries.remove(entry)) {
+                                            entryAdapter.updateEntries(allEntries);
+                                        }
+
+                                        // Update statistics
+                                        totalEntryCount = Math.max(0, totalEntryCount - 1);
+                                        updateStatistics();
+
+                                        showToast("Entry deleted");
+                                        Log.d(TAG, "Entry deleted successfully");
+                                    } else {
+                                        showToast("Failed to delete entry - entry not found in database");
+                                        Log.e(TAG, "Failed to delete entry from database - ID: " + entry.getId() + " not found");
+                                    }
+                                })
+                                .exceptionally(e -> {
+                                    Log.e(TAG, "Error deleting entry: ", e);
+                                    showToast("Error deleting entry");
+                                    return null;
+                                });
                     })
                     .setNegativeButton("Cancel", null)
                     .show();
@@ -255,26 +481,68 @@ public class DailyEntriesActivity extends AppCompatActivity {
         }
     }
 
-    private void updateCurrentWeightIfNeeded() {
-        try {
-            if (!allEntries.isEmpty()) {
-                // Update current weight to the most recent entry
-                WeightEntry mostRecent = allEntries.get(0); // Entries are sorted by date DESC
-                databaseHelper.updateCurrentWeight(currentUsername, mostRecent.getWeight());
-                Log.d(TAG, "Current weight updated to: " + mostRecent.getWeight());
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error updating current weight: ", e);
+    private void updateSelectionHeader(int selectedCount) {
+        boolean selecting = selectedCount > 0;
+        selectionBackCallback.setEnabled(selecting);
+        btnDeleteSelected.setVisibility(selecting ? View.VISIBLE : View.GONE);
+        btnBack.setImageResource(selecting ? R.drawable.ic_close : R.drawable.ic_arrow_back);
+        tvTitle.setText(selecting ? selectedCount + " selected" : "Weight Entries");
+        fabAddEntry.setVisibility(selecting ? View.GONE : View.VISIBLE);
+    }
+
+    private void deleteSelectedEntries() {
+        Set<Integer> selectedIds = entryAdapter.getSelectedIds();
+        if (selectedIds.isEmpty()) {
+            return;
         }
+
+        new AlertDialog.Builder(this)
+                .setTitle("Delete Entries")
+                .setMessage(String.format("Are you sure you want to delete %d weight entries?", selectedIds.size()))
+                .setPositiveButton("Delete", (dialog, which) -> {
+                    Log.d(TAG, "Deleting " + selectedIds.size() + " entries for user: " + currentUsername);
+                    btnDeleteSelected.setEnabled(false);
+
+                    // One bulk delete; the current weight is recomputed in the same transaction
+                    databaseHelper.deleteWeightEntriesAsync(currentUserId, selectedIds)
+                            .thenAccept(deleted -> {
+                                btnDeleteSelected.setEnabled(true);
+                                if (isFinishing() || isDestroyed()) {
+                                    return;
+                                }
+
+                                if (deleted >= 0) {
+                                    // Remove every deleted row in a single list diff; the adapter
+                                    // drops the now-missing ids and leaves selection mode
+                                    allEntries.removeIf(entry -> selectedIds.contains(entry.getId()));
+                                    entryAdapter.updateEntries(allEntries);
+
+                                    totalEntryCount = Math.max(0, totalEntryCount - deleted);
+                                    updateStatistics();
+
+                                    showToast(deleted == 1 ? "Entry deleted" : deleted + " entries deleted");
+                                } else {
+                                    showToast("Failed to delete entries");
+                                    Log.e(TAG, "Bulk delete failed for " + selectedIds.size() + " entries");
+                                }
+                            })
+                            .exceptionally(e -> {
+                                btnDeleteSelected.setEnabled(true);
+                                Log.e(TAG, "Error deleting entries: ", e);
+                                showToast("Error deleting entries");
+                                return null;
+                            });
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
     }
 
     private void showAddWeightDialog() {
         try {
             AddWeightDialog dialog = new AddWeightDialog(this, currentUsername, databaseHelper);
             dialog.setOnEntryAddedListener(() -> {
-                // Refresh entries when new entry is added
-                loadAllEntries();
-                updateStatistics();
+                // Entries refresh through the change subscription
+                Log.d(TAG, "Entry added");
             });
             dialog.show();
         } catch (Exception e) {
@@ -291,22 +559,15 @@ public class DailyEntriesActivity extends AppCompatActivity {
         }
     }
 
-    @Override
-    protected void onResume() {
-        super.onResume();
-        try {
-            Log.d(TAG, "onResume called");
-            // Refresh data when returning to this activity
-            loadAllEntries();
-            updateStatistics();
-        } catch (Exception e) {
-            Log.e(TAG, "Error in onResume: ", e);
-        }
-    }
-
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        // Realm handles connection lifecycle automatically - no close needed
+        // Stop the live query before releasing the Realm handle pinned in onCreate
+        if (entriesSubscription != null) {
+            entriesSubscription.cancel();
+        }
+        if (databaseHelper != null) {
+            databaseHelper.close();
+        }
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.weighttrackingapp;
 
 import android.content.Context;
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -8,16 +9,45 @@ import android.widget.ImageButton;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 public class DailyEntryAdapter extends RecyclerView.Adapter<DailyEntryAdapter.ViewHolder> {
 
+    private static final int SELECTED_ROW_COLOR = 0x1A007AFF; // Accent blue at 10% alpha
+
+    // Rows are keyed on entry id; contents compare the displayed fields
+    private static final DiffUtil.ItemCallback<WeightEntry> DIFF_CALLBACK = new DiffUtil.ItemCallback<WeightEntry>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull WeightEntry oldItem, @NonNull WeightEntry newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull WeightEntry oldItem, @NonNull WeightEntry newItem) {
+            return Double.compare(oldItem.getWeight(), newItem.getWeight()) == 0
+                    && Objects.equals(oldItem.getDate(), newItem.getDate())
+                    && Objects.equals(oldItem.getTime(), newItem.getTime())
+                    && Objects.equals(oldItem.getNotes(), newItem.getNotes());
+        }
+    };
+
     private Context context;
-    private List<WeightEntry> entries;
+    private final AsyncListDiffer<WeightEntry> differ; // Diffs run on a background thread
     private OnDeleteClickListener deleteClickListener;
     private OnEditClickListener editClickListener;
+    private OnSelectionChangedListener selectionChangedListener;
+    private boolean selectionEnabled; // Off unless the screen supports bulk actions
+
+    // Entry ids picked in selection mode; selection mode is on while this is non-empty
+    private final Set<Integer> selectedIds = new HashSet<>();
 
     public interface OnDeleteClickListener {
         void onDeleteClick(int position);
@@ -27,9 +57,15 @@ public class DailyEntryAdapter extends RecyclerView.Adapter<DailyEntryAdapter.Vi
         void onEditClick(int position);
     }
 
+    public interface OnSelectionChangedListener {
+        void onSelectionChanged(int selectedCount);
+    }
+
     public DailyEntryAdapter(Context context, List<WeightEntry> entries) {
         this.context = context;
-        this.entries = entries;
+        this.differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+        setHasStableIds(true);
+        updateEntries(entries);
     }
 
     public void setOnDeleteClickListener(OnDeleteClickListener listener) {
@@ -40,10 +76,112 @@ public class DailyEntryAdapter extends RecyclerView.Adapter<DailyEntryAdapter.Vi
         this.editClickListener = listener;
     }
 
+    public void setOnSelectionChangedListener(OnSelectionChangedListener listener) {
+        this.selectionChangedListener = listener;
+    }
+
+    /**
+     * Allow long press to start multi-select. Turning it off drops any
+     * current selection.
+     */
+    public void setSelectionEnabled(boolean enabled) {
+        if (selectionEnabled == enabled) {
+            return;
+        }
+        selectionEnabled = enabled;
+        if (!enabled) {
+            clearSelection();
+        }
+    }
+
+    public boolean isSelectionMode() {
+        return !selectedIds.isEmpty();
+    }
+
+    /**
+     * Ids of the selected entries (a copy)
+     */
+    public Set<Integer> getSelectedIds() {
+        return new HashSet<>(selectedIds);
+    }
+
+    /**
+     * Leave selection mode, rebinding only the rows that were selected
+     */
+    public void clearSelection() {
+        if (selectedIds.isEmpty()) {
+            return;
+        }
+
+        selectedIds.clear();
+        // Leaving selection mode restores the row buttons on every row
+        notifyItemRangeChanged(0, getItemCount());
+        notifySelectionChanged();
+    }
+
+    private void toggleSelection(int position) {
+        WeightEntry entry = getEntry(position);
+        if (entry == null) {
+            return;
+        }
+
+        boolean wasSelectionMode = isSelectionMode();
+        if (!selectedIds.remove(entry.getId())) {
+            selectedIds.add(entry.getId());
+        }
+
+        if (wasSelectionMode != isSelectionMode()) {
+            notifyItemRangeChanged(0, getItemCount());
+        } else {
+            notifyItemChanged(position);
+        }
+        notifySelectionChanged();
+    }
+
+    private void notifySelectionChanged() {
+        if (selectionChangedListener != null) {
+            selectionChangedListener.onSelectionChanged(selectedIds.size());
+        }
+    }
+
+    /**
+     * Show a new list; only rows that changed are rebound.
+     * The list is copied, so callers may keep mutating their own.
+     */
     public void updateEntries(List<WeightEntry> newEntries) {
-        this.entries.clear();
-        this.entries.addAll(newEntries);
-        notifyDataSetChanged();
+        differ.submitList(newEntries != null ? new ArrayList<>(newEntries) : null);
+
+        // Drop selected ids whose rows are gone
+        if (!selectedIds.isEmpty()) {
+            Set<Integer> remaining = new HashSet<>();
+            if (newEntries != null) {
+                for (WeightEntry entry : newEntries) {
+                    if (selectedIds.contains(entry.getId())) {
+                        remaining.add(entry.getId());
+                    }
+                }
+            }
+            if (remaining.size() != selectedIds.size()) {
+                selectedIds.retainAll(remaining);
+                if (selectedIds.isEmpty()) {
+                    notifyItemRangeChanged(0, getItemCount());
+                }
+                notifySelectionChanged();
+            }
+        }
+    }
+
+    /**
+     * Entry currently shown at an adapter position, or null if out of range
+     */
+    public WeightEntry getEntry(int position) {
+        List<WeightEntry> entries = differ.getCurrentList();
+        return (position >= 0 && position < entries.size()) ? entries.get(position) : null;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).getId();
     }
 
     @NonNull
@@ -55,7 +193,7 @@ public class DailyEntryAdapter extends RecyclerView.Adapter<DailyEntryAdapter.Vi
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        WeightEntry entry = entries.get(position);
+        WeightEntry entry = differ.getCurrentList().get(position);
 
         // Set date (extract day from date string)
         holder.tvDay.setText(extractDay(entry.getDate()));
@@ -67,6 +205,31 @@ public class DailyEntryAdapter extends RecyclerView.Adapter<DailyEntryAdapter.Vi
         // Set weight (always in kg)
         holder.tvWeight.setText(String.format("%.1f", entry.getWeight()));
 
+        // Long press starts selection; while selecting, a tap toggles the row
+        boolean selectionMode = isSelectionMode();
+        if (selectedIds.contains(entry.getId())) {
+            holder.itemView.setBackgroundColor(SELECTED_ROW_COLOR);
+        } else {
+            holder.itemView.setBackground(holder.defaultBackground);
+        }
+        if (selectionEnabled) {
+            holder.itemView.setOnLongClickListener(v -> {
+                toggleSelection(holder.getAdapterPosition());
+                return true;
+            });
+        } else {
+            holder.itemView.setOnLongClickListener(null);
+            holder.itemView.setLongClickable(false);
+        }
+        holder.itemView.setOnClickListener(selectionMode ? v -> toggleSelection(holder.getAdapterPosition()) : null);
+        holder.itemView.setClickable(selectionMode);
+        if (holder.btnEdit != null) {
+            holder.btnEdit.setVisibility(selectionMode ? View.GONE : View.VISIBLE);
+        }
+        if (holder.btnDelete != null) {
+            holder.btnDelete.setVisibility(selectionMode ? View.GONE : View.VISIBLE);
+        }
+
         // Set edit button click listener
         if (holder.btnEdit != null) {
             holder.btnEdit.setOnClickListener(v -> {
@@ -88,7 +251,7 @@ public class DailyEntryAdapter extends RecyclerView.Adapter<DailyEntryAdapter.Vi
 
     @Override
     public int getItemCount() {
-        return entries.size();
+        return differ.getCurrentList().size();
     }
 
     private String extractDay(String date) {
@@ -132,9 +295,11 @@ public class DailyEntryAdapter extends RecyclerView.Adapter<DailyEntryAdapter.Vi
     public static class ViewHolder extends RecyclerView.ViewHolder {
         TextView tvDay, tvDate, tvTime, tvWeight;
         ImageButton btnEdit, btnDelete;
+        final Drawable defaultBackground;
 
         public ViewHolder(@NonNull View itemView) {
             super(itemView);
+            defaultBackground = itemView.getBackground();
             tvDay = itemView.findViewById(R.id.tvDay);
             tvDate = itemView.findViewById(R.id.tvDate);
             tvTime = itemView.findViewById(R.id.tvTime);
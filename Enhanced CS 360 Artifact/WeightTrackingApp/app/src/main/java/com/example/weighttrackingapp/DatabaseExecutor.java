@@ -0,0 +1,112 @@
+package com.example.weighttrackingapp;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.realm.Realm;
+
+/**
+ * Bounded background executor for Realm and BCrypt work.
+ *
+ * Work submitted through supply() runs on a small worker pool and its
+ * future is completed on the main thread, so thenAccept() callbacks can
+ * touch views directly. Each worker pins its own Realm through RealmScope
+ * while alive; idle workers time out and release it. If that Realm cannot
+ * be opened, the worker still runs its tasks so their futures fail normally.
+ */
+public final class DatabaseExecutor {
+
+    private static final String TAG = "DatabaseExecutor";
+
+    private static final int POOL_SIZE = 2;
+    private static final int QUEUE_CAPACITY = 64;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+    private static final Executor MAIN_THREAD = MAIN_HANDLER::post;
+
+    private static final ThreadPoolExecutor WORKERS = createWorkers();
+
+    private DatabaseExecutor() {}
+
+    private static ThreadPoolExecutor createWorkers() {
+        AtomicInteger threadCount = new AtomicInteger(1);
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(() -> {
+                // Keep one Realm open for the worker's lifetime
+                Realm realm = null;
+                try {
+                    realm = RealmScope.pin();
+                } catch (Throwable t) {
+                    // Run the tasks anyway: each opens Realm itself, so the failure
+                    // reaches supply() and fails its future instead of killing the thread
+                    Log.e(TAG, "Could not open Realm for worker: ", t);
+                }
+                try {
+                    runnable.run();
+                } finally {
+                    if (realm != null) {
+                        RealmScope.release(realm);
+                    }
+                }
+            }, "db-worker-" + threadCount.getAndIncrement());
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        };
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                POOL_SIZE,
+                POOL_SIZE,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(QUEUE_CAPACITY),
+                threadFactory
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Run work off the main thread; the returned future completes on the main thread
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            WORKERS.execute(() -> {
+                try {
+                    T result = work.get();
+                    MAIN_HANDLER.post(() -> future.complete(result));
+                } catch (Throwable t) {
+                    Log.e(TAG, "Background database task failed: ", t);
+                    MAIN_HANDLER.post(() -> future.completeExceptionally(t));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.e(TAG, "Database queue full, rejecting task: ", e);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Executor that runs tasks on the main thread
+     */
+    public static Executor mainThread() {
+        return MAIN_THREAD;
+    }
+
+    public static boolean isMainThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+}
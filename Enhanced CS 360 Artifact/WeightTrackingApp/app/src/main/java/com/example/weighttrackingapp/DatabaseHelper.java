@@ -1,35 +1,134 @@
 package com.example.weighttrackingapp;
 
 import android.content.Context;
+import android.os.StrictMode;
 import android.util.Log;
 
+import com.example.weighttrackingapp.models.SequenceRealm;
 import com.example.weighttrackingapp.models.UserRealm;
 import com.example.weighttrackingapp.models.WeightEntryRealm;
+import com.example.weighttrackingapp.models.WeightRollupRealm;
 
 import org.mindrot.jbcrypt.BCrypt;
 
-import java.text.ParseException;
+import java.io.Writer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.text.SimpleDateFormat;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
+import io.realm.OrderedCollectionChangeSet;
 import io.realm.Realm;
-import io.realm.RealmList;
+import io.realm.RealmModel;
+import io.realm.RealmQuery;
+import io.realm.RealmResults;
+import io.realm.Sort;
 
 public class DatabaseHelper {
 
     private static final String TAG = "DatabaseHelper";
     private static final int BCRYPT_COST = 12; // BCrypt work factor
+    private static final int IMPORT_CHUNK_SIZE = 1000; // Entries per import transaction
+    private static final int DELETE_BATCH_SIZE = 5000; // Entries per progress report when deleting
+    private static final long WRITE_COALESCE_WINDOW_MILLIS = 50; // How long a queued write waits for company
+    private static final int WRITE_MAX_BATCH_SIZE = 200; // Queued writes per transaction
+    static final String DATE_TIME_PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    // Newest first with an id tie-break; shared by every entry list so positions line up
+    private static final String[] NEWEST_FIRST_FIELDS = {"timestampMillis", "id"};
+    private static final Sort[] NEWEST_FIRST_ORDER = {Sort.DESCENDING, Sort.DESCENDING};
+
+    // Session-scoped username -> id cache so repeat lookups are primary-key hits
+    private static final Map<String, Integer> USER_IDS = new ConcurrentHashMap<>();
+
+    // Latest statistics per user id; an entry is reused while its dataVersion matches the user's
+    private static final Map<Integer, WeightStatistics> STATISTICS_CACHE = new ConcurrentHashMap<>();
+
+    // Entry edits and deletes coalesced into shared transactions (see queueWeightEntryUpdate)
+    private static final GroupCommitQueue<EntryWrite> ENTRY_WRITES = new GroupCommitQueue<>("db-write-queue",
+            WRITE_COALESCE_WINDOW_MILLIS, WRITE_MAX_BATCH_SIZE,
+            DatabaseHelper::commitEntryWrites, DatabaseExecutor.mainThread());
     
     private Context context;
+    private Realm lifecycleRealm; // Pinned between open() and close()
+
+    /**
+     * Progress callback for importWeightEntries
+     */
+    public interface ImportProgressListener {
+        void onProgress(int importedCount);
+    }
+
+    /**
+     * Progress callback for deleteUserAccount
+     */
+    public interface DeletionProgressListener {
+        void onProgress(int deletedCount, int totalCount);
+    }
+
+    /**
+     * One queued entry write, applied inside the batch transaction; returns the
+     * owning user's id, or -1 when the entry no longer exists
+     */
+    private interface EntryWrite {
+        int apply(Realm realm);
+    }
+
+    /**
+     * Receives fresh data from an observe*() subscription on the main thread
+     */
+    public interface DataObserver<T> {
+        void onChanged(T data);
+    }
+
+    /**
+     * Receives Realm's fine-grained change set for a user's entries on the main thread
+     */
+    public interface EntryChangeObserver {
+        void onEntriesChanged(OrderedCollectionChangeSet changeSet);
+    }
 
     public DatabaseHelper(Context context) {
         this.context = context;
         Log.d(TAG, "DatabaseHelper initialized with Realm and BCrypt");
     }
 
+    // ========================================
+    // LIFECYCLE METHODS
+    // ========================================
+
+    /**
+     * Pin this thread's Realm for the owner's lifetime (call from onCreate)
+     */
+    public void open() {
+        if (lifecycleRealm == null) {
+            lifecycleRealm = RealmScope.pin();
+            Log.d(TAG, "Realm pinned for lifecycle owner");
+        }
+    }
+
+    /**
+     * Release the pinned Realm (call from onDestroy)
+     */
+    public void close() {
+        if (lifecycleRealm != null) {
+            RealmScope.release(lifecycleRealm);
+            lifecycleRealm = null;
+            Log.d(TAG, "Realm released by lifecycle owner");
+        }
+    }
+
     // ========================================
     // USER MANAGEMENT METHODS
     // ========================================
@@ -40,21 +139,33 @@ public class DatabaseHelper {
     public long createUser(String username, String password) {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
+            realm = RealmScope.acquire();
             
-            // Get next user ID
-            Number maxId = realm.where(UserRealm.class).max("id");
-            int nextId = (maxId == null) ? 1 : maxId.intValue() + 1;
+            // Hash before taking the write lock
+            noteCryptoCall("BCrypt.hashpw");
+            String passwordHash = BCrypt.hashpw(password, BCrypt.gensalt(BCRYPT_COST));
             
             realm.beginTransaction();
+            
+            // Usernames are unique; checked under the write lock so two creates can't race
+            if (realm.where(UserRealm.class).equalTo("username", username).count() > 0) {
+                realm.cancelTransaction();
+                Log.e(TAG, "Username already taken: " + username);
+                return -1;
+            }
+            
+            // Get next user ID inside the transaction
+            int nextId = (int) allocateIds(realm, UserRealm.class, 1);
+            
             UserRealm user = realm.createObject(UserRealm.class, nextId);
             user.setUsername(username);
-            user.setPasswordHash(BCrypt.hashpw(password, BCrypt.gensalt(BCRYPT_COST)));
+            user.setPasswordHash(passwordHash);
             user.setCurrentWeight(0.0);
             user.setGoalWeight(0.0);
             user.setStartingWeight(0.0);
-            user.setWeightEntries(new RealmList<>());
+            user.setRollupZone(ZoneId.systemDefault().getId());
             realm.commitTransaction();
+            USER_IDS.put(username, nextId);
             
             Log.d(TAG, "User created with ID: " + nextId + " using BCrypt (cost=" + BCRYPT_COST + ")");
             return nextId;
@@ -66,7 +177,7 @@ public class DatabaseHelper {
             return -1;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
@@ -77,7 +188,7 @@ public class DatabaseHelper {
     public boolean userExists(String username) {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
+            realm = RealmScope.acquire();
             long count = realm.where(UserRealm.class)
                     .equalTo("username", username)
                     .count();
@@ -89,7 +200,7 @@ public class DatabaseHelper {
             return false;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
@@ -98,27 +209,33 @@ public class DatabaseHelper {
      * Validate user credentials using BCrypt
      */
     public boolean validateUser(String username, String password) {
+        return authenticateUser(username, password) != -1;
+    }
+
+    /**
+     * Check credentials and return the user's id for the session, or -1 when invalid
+     */
+    public int authenticateUser(String username, String password) {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
-            UserRealm user = realm.where(UserRealm.class)
-                    .equalTo("username", username)
-                    .findFirst();
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, username);
             
             if (user != null) {
+                noteCryptoCall("BCrypt.checkpw");
                 boolean isValid = BCrypt.checkpw(password, user.getPasswordHash());
                 Log.d(TAG, "User validation for '" + username + "' using BCrypt: " + isValid);
-                return isValid;
+                return isValid ? user.getId() : -1;
             }
             
             Log.d(TAG, "User not found during validation: " + username);
-            return false;
+            return -1;
         } catch (Exception e) {
             Log.e(TAG, "Error validating user: ", e);
-            return false;
+            return -1;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
@@ -127,12 +244,15 @@ public class DatabaseHelper {
      * Get user ID by username
      */
     public int getUserId(String username) {
+        Integer cachedId = USER_IDS.get(username);
+        if (cachedId != null) {
+            return cachedId;
+        }
+        
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
-            UserRealm user = realm.where(UserRealm.class)
-                    .equalTo("username", username)
-                    .findFirst();
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, username);
             
             if (user != null) {
                 int userId = user.getId();
@@ -147,7 +267,7 @@ public class DatabaseHelper {
             return -1;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
@@ -158,10 +278,8 @@ public class DatabaseHelper {
     public double getCurrentWeight(String username) {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
-            UserRealm user = realm.where(UserRealm.class)
-                    .equalTo("username", username)
-                    .findFirst();
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, username);
             
             if (user != null) {
                 double weight = user.getCurrentWeight();
@@ -176,7 +294,7 @@ public class DatabaseHelper {
             return 0.0;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
@@ -187,10 +305,8 @@ public class DatabaseHelper {
     public double getGoalWeight(String username) {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
-            UserRealm user = realm.where(UserRealm.class)
-                    .equalTo("username", username)
-                    .findFirst();
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, username);
             
             if (user != null) {
                 double weight = user.getGoalWeight();
@@ -205,7 +321,7 @@ public class DatabaseHelper {
             return 0.0;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
@@ -216,10 +332,8 @@ public class DatabaseHelper {
     public double getStartingWeight(String username) {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
-            UserRealm user = realm.where(UserRealm.class)
-                    .equalTo("username", username)
-                    .findFirst();
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, username);
             
             if (user != null) {
                 double weight = user.getStartingWeight();
@@ -234,110 +348,153 @@ public class DatabaseHelper {
             return 0.0;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
 
     /**
-     * Update user's current weight
+     * Get user's smoothed trend weight (0.0 when there are no entries)
      */
-    public boolean updateCurrentWeight(String username, double weight) {
+    public double getTrendWeight(String username) {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
-            UserRealm user = realm.where(UserRealm.class)
-                    .equalTo("username", username)
-                    .findFirst();
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, username);
             
             if (user != null) {
-                realm.beginTransaction();
-                user.setCurrentWeight(weight);
-                realm.commitTransaction();
-                Log.d(TAG, "Update current weight for " + username + " to " + weight + ": true");
-                return true;
+                double weight = user.getTrendWeight();
+                Log.d(TAG, "Trend weight for " + username + ": " + weight);
+                return weight;
             }
             
-            return false;
+            Log.e(TAG, "No user found when getting trend weight: " + username);
+            return 0.0;
         } catch (Exception e) {
-            if (realm != null && realm.isInTransaction()) {
-                realm.cancelTransaction();
-            }
-            Log.e(TAG, "Error updating current weight: ", e);
-            return false;
+            Log.e(TAG, "Error getting trend weight: ", e);
+            return 0.0;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
 
     /**
-     * Update user's goal weight
+     * Get user's id, weights and entry summary in one lookup
      */
-    public boolean updateGoalWeight(String username, double weight) {
+    public UserProfileSnapshot getUserProfileSnapshot(String username) {
+        return getUserProfileSnapshot(getUserId(username));
+    }
+
+    /**
+     * Get user's id, weights and entry summary in one lookup
+     */
+    public UserProfileSnapshot getUserProfileSnapshot(int userId) {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
-            UserRealm user = realm.where(UserRealm.class)
-                    .equalTo("username", username)
-                    .findFirst();
-            
-            if (user != null) {
-                realm.beginTransaction();
-                user.setGoalWeight(weight);
-                realm.commitTransaction();
-                Log.d(TAG, "Update goal weight for " + username + " to " + weight + ": true");
-                return true;
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, userId);
+
+            if (user == null) {
+                Log.e(TAG, "No user found when getting profile snapshot: user ID " + userId);
+                return null;
             }
-            
-            return false;
+
+            // Entry summary comes from the maintained aggregates
+            WeightEntryRealm latest = findLatestEntry(realm, user);
+            WeightEntry latestEntry = latest != null ? convertToWeightEntry(latest) : null;
+            String firstEntryDate = user.getEntryCount() > 0
+                    ? new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(new Date(user.getFirstTimestampMillis()))
+                    : null;
+
+            UserProfileSnapshot snapshot = new UserProfileSnapshot(
+                    user.getId(),
+                    user.getUsername(),
+                    user.getStartingWeight(),
+                    user.getCurrentWeight(),
+                    user.getGoalWeight(),
+                    user.getEntryCount(),
+                    latestEntry,
+                    firstEntryDate,
+                    user.getTrendWeight(),
+                    WeightRegression.projection(user)
+            );
+            Log.d(TAG, "Profile snapshot for user ID " + userId + ": " + snapshot);
+            return snapshot;
         } catch (Exception e) {
-            if (realm != null && realm.isInTransaction()) {
-                realm.cancelTransaction();
-            }
-            Log.e(TAG, "Error updating goal weight: ", e);
-            return false;
+            Log.e(TAG, "Error getting profile snapshot: ", e);
+            return null;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
 
     /**
-     * Update user's starting weight
+     * Apply the fields set on update to the user's profile in one write
+     * transaction, so a multi-field edit either lands completely or not at all
      */
-    public boolean updateStartingWeight(String username, double weight) {
+    public boolean updateUserProfile(int userId, ProfileUpdate update) {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
-            UserRealm user = realm.where(UserRealm.class)
-                    .equalTo("username", username)
-                    .findFirst();
+            realm = RealmScope.acquire();
+            realm.beginTransaction();
             
-            if (user != null) {
-                realm.beginTransaction();
-                user.setStartingWeight(weight);
-                realm.commitTransaction();
-                Log.d(TAG, "Update starting weight for " + username + " to " + weight + ": true");
-                return true;
+            UserRealm user = findUser(realm, userId);
+            if (user == null) {
+                realm.cancelTransaction();
+                return false;
             }
             
-            return false;
+            if (update.hasStartingWeight()) {
+                user.setStartingWeight(update.getStartingWeight());
+            }
+            if (update.hasCurrentWeight()) {
+                user.setCurrentWeight(update.getCurrentWeight());
+            }
+            if (update.hasGoalWeight()) {
+                user.setGoalWeight(update.getGoalWeight());
+            }
+            realm.commitTransaction();
+            
+            Log.d(TAG, "Updated profile for user ID " + userId + ": " + update);
+            return true;
         } catch (Exception e) {
             if (realm != null && realm.isInTransaction()) {
                 realm.cancelTransaction();
             }
-            Log.e(TAG, "Error updating starting weight: ", e);
+            Log.e(TAG, "Error updating user profile: ", e);
             return false;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
 
+    /**
+     * Update user's current weight
+     */
+    public boolean updateCurrentWeight(String username, double weight) {
+        return updateUserProfile(getUserId(username), new ProfileUpdate.Builder().currentWeight(weight).build());
+    }
+
+    /**
+     * Update user's goal weight
+     */
+    public boolean updateGoalWeight(String username, double weight) {
+        return updateUserProfile(getUserId(username), new ProfileUpdate.Builder().goalWeight(weight).build());
+    }
+
+    /**
+     * Update user's starting weight
+     */
+    public boolean updateStartingWeight(String username, double weight) {
+        return updateUserProfile(getUserId(username), new ProfileUpdate.Builder().startingWeight(weight).build());
+    }
+
     // ========================================
     // USER DELETION METHODS
     // ========================================
@@ -348,16 +505,22 @@ public class DatabaseHelper {
     public boolean deleteAllUserEntries(int userId) {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
-            UserRealm user = realm.where(UserRealm.class)
-                    .equalTo("id", userId)
-                    .findFirst();
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, userId);
             
             if (user != null) {
                 realm.beginTransaction();
-                user.getWeightEntries().clear();
+                int deleted = deleteEntriesForUser(realm, userId, null);
+                UserAggregates.recompute(user);
+                WeightTrend.recompute(user);
+                WeightRegression.recompute(user);
+                WeightRollups.deleteForUser(realm, userId);
                 realm.commitTransaction();
-                Log.d(TAG, "Deleted all entries for user ID: " + userId);
+                
+                if (deleted > 0) {
+                    RealmCompaction.requestCompaction(context, "deleted " + deleted + " entries");
+                }
+                Log.d(TAG, "Deleted " + deleted + " entries for user ID: " + userId);
                 return true;
             }
             
@@ -370,40 +533,56 @@ public class DatabaseHelper {
             return false;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
 
     /**
-     * Delete user by ID
+     * Delete user by ID, including all of their entries and rollups
      */
     public boolean deleteUser(int userId) {
+        return deleteUserAccount(userId, null);
+    }
+
+    /**
+     * Delete a user with every row they own in one transaction, reporting entry
+     * progress as it goes. The freed space is reclaimed by compaction on next launch.
+     */
+    public boolean deleteUserAccount(int userId, DeletionProgressListener progressListener) {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
-            UserRealm user = realm.where(UserRealm.class)
-                    .equalTo("id", userId)
-                    .findFirst();
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, userId);
             
-            if (user != null) {
-                realm.beginTransaction();
-                user.deleteFromRealm();
-                realm.commitTransaction();
-                Log.d(TAG, "Deleted user ID: " + userId);
-                return true;
+            if (user == null) {
+                Log.e(TAG, "No user found when deleting account: " + userId);
+                return false;
             }
             
-            return false;
+            long startTime = System.nanoTime();
+            
+            realm.beginTransaction();
+            int deletedEntries = deleteEntriesForUser(realm, userId, progressListener);
+            WeightRollups.deleteForUser(realm, userId);
+            user.deleteFromRealm();
+            realm.commitTransaction();
+            STATISTICS_CACHE.remove(userId);
+            USER_IDS.values().remove(userId);
+            
+            long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+            RealmCompaction.requestCompaction(context, "deleted user " + userId);
+            Log.d(TAG, "Deleted user ID: " + userId + " with " + deletedEntries + " entries in " + elapsedMillis + " ms");
+            return true;
         } catch (Exception e) {
             if (realm != null && realm.isInTransaction()) {
                 realm.cancelTransaction();
             }
-            Log.e(TAG, "Error deleting user: ", e);
+            Log.e(TAG, "Error deleting user account: ", e);
             return false;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
@@ -425,13 +604,11 @@ public class DatabaseHelper {
     public boolean userHasEntries(String username) {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
-            UserRealm user = realm.where(UserRealm.class)
-                    .equalTo("username", username)
-                    .findFirst();
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, username);
             
             if (user != null) {
-                boolean hasEntries = user.getWeightEntries().size() > 0;
+                boolean hasEntries = user.getEntryCount() > 0;
                 Log.d(TAG, "User '" + username + "' has entries: " + hasEntries);
                 return hasEntries;
             }
@@ -442,7 +619,7 @@ public class DatabaseHelper {
             return false;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
@@ -457,28 +634,30 @@ public class DatabaseHelper {
     public long addWeightEntry(WeightEntry entry) {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
-            UserRealm user = realm.where(UserRealm.class)
-                    .equalTo("id", entry.getUserId())
-                    .findFirst();
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, entry.getUserId());
             
             if (user != null) {
-                // Get next entry ID across all users
-                Number maxId = realm.where(WeightEntryRealm.class).max("id");
-                int nextId = (maxId == null) ? 1 : maxId.intValue() + 1;
-                
                 realm.beginTransaction();
                 
+                // Get next entry ID across all users inside the transaction
+                int nextId = (int) allocateIds(realm, WeightEntryRealm.class, 1);
+                
                 // Create embedded entry
                 WeightEntryRealm realmEntry = realm.createObject(WeightEntryRealm.class, nextId);
                 realmEntry.setUserId(entry.getUserId());
                 realmEntry.setWeight(entry.getWeight());
                 realmEntry.setDate(entry.getDate());
                 realmEntry.setTime(entry.getTime());
+                realmEntry.setTimestampMillis(entry.getTimestampMillis() != 0
+                        ? entry.getTimestampMillis()
+                        : toTimestampMillis(entry.getDate(), entry.getTime()));
                 realmEntry.setNotes(entry.getNotes() != null ? entry.getNotes() : "");
                 
-                // Add to user's entries list
-                user.getWeightEntries().add(realmEntry);
+                UserAggregates.onEntryAdded(user, realmEntry);
+                WeightTrend.onEntryAdded(user, realmEntry);
+                WeightRegression.onEntryAdded(user, realmEntry);
+                WeightRollups.onEntryAdded(realm, user, realmEntry);
                 
                 realm.commitTransaction();
                 
@@ -496,178 +675,464 @@ public class DatabaseHelper {
             return -1;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
 
     /**
-     * Update current weight from most recent entry
-     */
-    public boolean updateCurrentWeightFromMostRecent(String username) {
-        WeightEntry mostRecent = getMostRecentWeightEntry(username);
-        if (mostRecent != null) {
-            return updateCurrentWeight(username, mostRecent.getWeight());
-        }
-        return false;
-    }
-
-    /**
-     * Get most recent weight entry by actual date/time
+     * Record a weigh-in in one write transaction: insert the entry, keep
+     * currentWeight on the newest entry and capture the state before and after
+     * for achievement checks. Returns null on failure.
      */
-    public WeightEntry getMostRecentWeightEntryByActualDate(String username) {
+    public WeighInResult recordWeighIn(int userId, double weight, long timestampMillis) {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
-            UserRealm user = realm.where(UserRealm.class)
-                    .equalTo("username", username)
-                    .findFirst();
+            realm = RealmScope.acquire();
+            realm.beginTransaction();
             
-            if (user == null || user.getWeightEntries().isEmpty()) {
+            UserRealm user = findUser(realm, userId);
+            if (user == null) {
+                realm.cancelTransaction();
+                Log.e(TAG, "User not found for weigh-in: " + userId);
                 return null;
             }
             
-            // Sort by date+time
-            RealmList<WeightEntryRealm> entries = user.getWeightEntries();
-            WeightEntryRealm mostRecent = null;
-            Date mostRecentDateTime = null;
-            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
+            double previousWeight = user.getCurrentWeight();
             
-            for (WeightEntryRealm entry : entries) {
-                try {
-                    String dateTimeStr = entry.getDate() + " " + entry.getTime();
-                    Date entryDateTime = format.parse(dateTimeStr);
-                    
-                    if (mostRecentDateTime == null || entryDateTime.after(mostRecentDateTime)) {
-                        mostRecentDateTime = entryDateTime;
-                        mostRecent = entry;
-                    }
-                } catch (ParseException e) {
-                    Log.e(TAG, "Error parsing date: ", e);
-                }
-            }
+            int nextId = (int) allocateIds(realm, WeightEntryRealm.class, 1);
+            Date timestamp = new Date(timestampMillis);
+            WeightEntryRealm realmEntry = realm.createObject(WeightEntryRealm.class, nextId);
+            realmEntry.setUserId(userId);
+            realmEntry.setWeight(weight);
+            realmEntry.setDate(new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(timestamp));
+            realmEntry.setTime(new SimpleDateFormat("HH:mm:ss", Locale.getDefault()).format(timestamp));
+            realmEntry.setTimestampMillis(timestampMillis);
+            realmEntry.setNotes("");
             
-            if (mostRecent != null) {
-                return convertToWeightEntry(mostRecent);
+            UserAggregates.onEntryAdded(user, realmEntry);
+            WeightTrend.onEntryAdded(user, realmEntry);
+            WeightRegression.onEntryAdded(user, realmEntry);
+            WeightRollups.onEntryAdded(realm, user, realmEntry);
+            
+            // Back-dated entries leave the current weight alone
+            if (user.getLatestEntryId() == nextId) {
+                user.setCurrentWeight(weight);
             }
             
-            return null;
+            WeighInResult result = WeighInResult.of(nextId, weight, previousWeight, user.getCurrentWeight(),
+                    user.getGoalWeight(), user.getStartingWeight(), user.getEntryCount());
+            realm.commitTransaction();
+            
+            Log.d(TAG, "Recorded weigh-in " + nextId + " for user ID " + userId);
+            return result;
         } catch (Exception e) {
-            Log.e(TAG, "Error getting most recent entry by date: ", e);
+            if (realm != null && realm.isInTransaction()) {
+                realm.cancelTransaction();
+            }
+            Log.e(TAG, "Error recording weigh-in: ", e);
             return null;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
 
     /**
-     * Get recent weight entries with limit
+     * Bulk-import weight entries for one user in chunked write transactions.
+     * Ids are reserved a chunk at a time and currentWeight is recomputed once
+     * at the end. Progress is reported on the calling thread after each chunk.
+     * Returns the number of entries imported, or -1 on failure; chunks committed
+     * before a failure are kept, with the trend and currentWeight repaired to match.
      */
-    public List<WeightEntry> getRecentWeightEntries(String username, int limit) {
+    public int importWeightEntries(int userId, Iterable<WeightEntry> entries, ImportProgressListener progressListener) {
         Realm realm = null;
+        int importedCount = 0;
         try {
-            realm = Realm.getDefaultInstance();
-            UserRealm user = realm.where(UserRealm.class)
-                    .equalTo("username", username)
-                    .findFirst();
-            
-            if (user == null) {
-                return new ArrayList<>();
+            realm = RealmScope.acquire();
+            if (findUser(realm, userId) == null) {
+                Log.e(TAG, "User not found for import: " + userId);
+                return -1;
             }
             
-            // Get entries and sort by date descending
-            List<WeightEntry> entries = new ArrayList<>();
-            for (WeightEntryRealm realmEntry : user.getWeightEntries()) {
-                entries.add(convertToWeightEntry(realmEntry));
-            }
+            // One parser for the whole import instead of one per row
+            SimpleDateFormat format = new SimpleDateFormat(DATE_TIME_PATTERN, Locale.getDefault());
+            List<WeightEntry> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
             
-            // Sort by date descending
-            entries.sort((e1, e2) -> {
-                try {
-                    SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
-                    Date d1 = format.parse(e1.getDate() + " " + e1.getTime());
-                    Date d2 = format.parse(e2.getDate() + " " + e2.getTime());
-                    return d2.compareTo(d1); // Descending
-                } catch (Exception e) {
-                    return 0;
+            for (WeightEntry entry : entries) {
+                chunk.add(entry);
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    importedCount += writeImportChunk(realm, userId, chunk, format);
+                    chunk.clear();
+                    if (progressListener != null) {
+                        progressListener.onProgress(importedCount);
+                    }
                 }
-            });
+            }
             
-            // Apply limit
-            if (entries.size() > limit) {
-                entries = entries.subList(0, limit);
+            if (!chunk.isEmpty()) {
+                importedCount += writeImportChunk(realm, userId, chunk, format);
+                if (progressListener != null) {
+                    progressListener.onProgress(importedCount);
+                }
             }
             
-            Log.d(TAG, "Retrieved " + entries.size() + " recent entries for " + username);
-            return entries;
+            finishImport(realm, userId);
+            
+            Log.d(TAG, "Imported " + importedCount + " weight entries for user ID: " + userId);
+            return importedCount;
         } catch (Exception e) {
-            Log.e(TAG, "Error getting recent entries: ", e);
-            return new ArrayList<>();
+            if (realm != null && realm.isInTransaction()) {
+                realm.cancelTransaction();
+            }
+            Log.e(TAG, "Error importing weight entries after " + importedCount + " rows: ", e);
+            
+            // Chunks that committed stay; bring the trend and current weight in line with them
+            if (realm != null && importedCount > 0) {
+                try {
+                    finishImport(realm, userId);
+                    Log.w(TAG, "Kept " + importedCount + " rows from the failed import for user ID: " + userId);
+                } catch (Exception repairError) {
+                    if (realm.isInTransaction()) {
+                        realm.cancelTransaction();
+                    }
+                    Log.e(TAG, "Error repairing after failed import: ", repairError);
+                }
+            }
+            return -1;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
 
     /**
-     * Get all weight entries for user
+     * Recompute the trend series and current weight once for the whole import,
+     * since imported rows may arrive in any order
      */
-    public List<WeightEntry> getAllWeightEntries(String username) {
+    private void finishImport(Realm realm, int userId) {
+        realm.beginTransaction();
+        UserRealm user = findUser(realm, userId);
+        if (user != null) {
+            WeightTrend.recompute(user);
+            WeightEntryRealm mostRecent = findLatestEntry(realm, user);
+            if (mostRecent != null) {
+                user.setCurrentWeight(mostRecent.getWeight());
+            }
+        }
+        realm.commitTransaction();
+    }
+
+    /**
+     * Write one import chunk in a single transaction with a reserved id block
+     */
+    private int writeImportChunk(Realm realm, int userId, List<WeightEntry> chunk, SimpleDateFormat format) {
+        realm.beginTransaction();
+        
+        UserRealm user = findUser(realm, userId);
+        if (user == null) {
+            realm.cancelTransaction();
+            throw new IllegalStateException("User deleted during import: " + userId);
+        }
+        
+        int nextId = (int) allocateIds(realm, WeightEntryRealm.class, chunk.size());
+        for (WeightEntry entry : chunk) {
+            WeightEntryRealm realmEntry = realm.createObject(WeightEntryRealm.class, nextId++);
+            realmEntry.setUserId(userId);
+            realmEntry.setWeight(entry.getWeight());
+            realmEntry.setDate(entry.getDate());
+            realmEntry.setTime(entry.getTime());
+            realmEntry.setTimestampMillis(entry.getTimestampMillis() != 0
+                    ? entry.getTimestampMillis()
+                    : toTimestampMillis(format, entry.getDate(), entry.getTime()));
+            realmEntry.setNotes(entry.getNotes() != null ? entry.getNotes() : "");
+            UserAggregates.onEntryAdded(user, realmEntry);
+            WeightRegression.onEntryAdded(user, realmEntry);
+            WeightRollups.onEntryAdded(realm, user, realmEntry);
+        }
+        
+        realm.commitTransaction();
+        return chunk.size();
+    }
+
+    /**
+     * Export a user's weight history as CSV, oldest first.
+     * Rows are read lazily from the sorted RealmResults, so memory use does not
+     * grow with history size. The channel is left open for the caller to close.
+     * Returns the number of rows written, or -1 on failure.
+     */
+    public int exportWeightHistory(String username, WritableByteChannel channel) {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
-            UserRealm user = realm.where(UserRealm.class)
-                    .equalTo("username", username)
-                    .findFirst();
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, username);
             
             if (user == null) {
-                return new ArrayList<>();
+                Log.e(TAG, "User not found for export: " + username);
+                return -1;
             }
             
-            List<WeightEntry> entries = new ArrayList<>();
-            for (WeightEntryRealm realmEntry : user.getWeightEntries()) {
-                entries.add(convertToWeightEntry(realmEntry));
+            RealmResults<WeightEntryRealm> results = entriesOf(user)
+                    .sort("timestampMillis", Sort.ASCENDING)
+                    .findAll();
+            
+            Writer out = WeightHistoryCsv.newWriter(channel);
+            WeightHistoryCsv.writeHeader(out);
+            int rowCount = 0;
+            for (WeightEntryRealm entry : results) {
+                WeightHistoryCsv.writeRow(out, entry.getDate(), entry.getTime(), entry.getWeight(), entry.getNotes());
+                rowCount++;
             }
+            out.flush();
             
-            Log.d(TAG, "Retrieved " + entries.size() + " entries for " + username);
-            return entries;
+            Log.d(TAG, "Exported " + rowCount + " weight entries for user: " + username);
+            return rowCount;
         } catch (Exception e) {
-            Log.e(TAG, "Error getting all entries: ", e);
-            return new ArrayList<>();
+            Log.e(TAG, "Error exporting weight history: ", e);
+            return -1;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
 
     /**
-     * Get most recent weight entry
+     * Import CSV weight history through the batched import path.
+     * Rows are parsed as they are written, so memory stays constant.
+     * Returns the number of rows imported, or -1 on failure.
      */
-    public WeightEntry getMostRecentWeightEntry(String username) {
-        List<WeightEntry> entries = getRecentWeightEntries(username, 1);
-        return entries.isEmpty() ? null : entries.get(0);
+    public int importWeightHistory(int userId, ReadableByteChannel channel, ImportProgressListener progressListener) {
+        try {
+            WeightHistoryCsv.RowReader rows = WeightHistoryCsv.rows(WeightHistoryCsv.newReader(channel), userId);
+            int importedCount = importWeightEntries(userId, rows, progressListener);
+            
+            if (rows.getSkippedRows() > 0) {
+                Log.w(TAG, "Skipped " + rows.getSkippedRows() + " malformed CSV rows");
+            }
+            return importedCount;
+        } catch (Exception e) {
+            Log.e(TAG, "Error importing weight history: ", e);
+            return -1;
+        }
     }
 
     /**
-     * Update weight entry
+     * Update current weight from most recent entry
      */
-    public boolean updateWeightEntry(int entryId, double weight, String date, String time) {
-        Realm realm = null;
-        try {
-            realm = Realm.getDefaultInstance();
+    public boolean updateCurrentWeightFromMostRecent(String username) {
+        return updateCurrentWeightFromMostRecent(getUserId(username));
+    }
+
+    /**
+     * Update current weight from most recent entry
+     */
+    public boolean updateCurrentWeightFromMostRecent(int userId) {
+        Realm realm = null;
+        try {
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, userId);
+            
+            // Latest entry comes from the maintained aggregate, no sort
+            WeightEntryRealm mostRecent = findLatestEntry(realm, user);
+            if (mostRecent == null) {
+                return false;
+            }
+            
+            realm.beginTransaction();
+            user.setCurrentWeight(mostRecent.getWeight());
+            realm.commitTransaction();
+            Log.d(TAG, "Current weight updated from most recent entry for user ID " + userId);
+            return true;
+        } catch (Exception e) {
+            if (realm != null && realm.isInTransaction()) {
+                realm.cancelTransaction();
+            }
+            Log.e(TAG, "Error updating current weight from most recent entry: ", e);
+            return false;
+        } finally {
+            if (realm != null) {
+                RealmScope.release(realm);
+            }
+        }
+    }
+
+    /**
+     * Get most recent weight entry by actual date/time
+     */
+    public WeightEntry getMostRecentWeightEntryByActualDate(String username) {
+        Realm realm = null;
+        try {
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, username);
+            
+            // Maintained latest-entry id - a primary key lookup
+            WeightEntryRealm mostRecent = findLatestEntry(realm, user);
+            
+            if (mostRecent != null) {
+                return convertToWeightEntry(mostRecent);
+            }
+            
+            return null;
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting most recent entry by date: ", e);
+            return null;
+        } finally {
+            if (realm != null) {
+                RealmScope.release(realm);
+            }
+        }
+    }
+
+    /**
+     * Get recent weight entries with limit
+     */
+    public List<WeightEntry> getRecentWeightEntries(String username, int limit) {
+        return getRecentWeightEntries(getUserId(username), limit);
+    }
+
+    /**
+     * Get recent weight entries with limit
+     */
+    public List<WeightEntry> getRecentWeightEntries(int userId, int limit) {
+        Realm realm = null;
+        try {
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, userId);
+            
+            if (user == null) {
+                return new ArrayList<>();
+            }
+            
+            // Realm sorts natively and reads rows lazily, so only the first `limit` are copied;
+            // the id tie-break matches getWeightEntriesPage for equal timestamps
+            RealmResults<WeightEntryRealm> results = entriesOf(user)
+                    .sort(NEWEST_FIRST_FIELDS, NEWEST_FIRST_ORDER)
+                    .findAll();
+            
+            int count = Math.min(results.size(), Math.max(0, limit));
+            List<WeightEntry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(convertToWeightEntry(results.get(i)));
+            }
+            
+            Log.d(TAG, "Retrieved " + entries.size() + " recent entries for user ID " + userId);
+            return entries;
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting recent entries: ", e);
+            return new ArrayList<>();
+        } finally {
+            if (realm != null) {
+                RealmScope.release(realm);
+            }
+        }
+    }
+
+    /**
+     * Get all weight entries for user
+     */
+    public List<WeightEntry> getAllWeightEntries(String username) {
+        Realm realm = null;
+        try {
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, username);
+            
+            if (user == null) {
+                return new ArrayList<>();
+            }
+            
+            // Newest first, matching the dashboard ordering
+            RealmResults<WeightEntryRealm> results = entriesOf(user)
+                    .sort("timestampMillis", Sort.DESCENDING)
+                    .findAll();
+            
+            List<WeightEntry> entries = new ArrayList<>(results.size());
+            for (WeightEntryRealm realmEntry : results) {
+                entries.add(convertToWeightEntry(realmEntry));
+            }
+            
+            Log.d(TAG, "Retrieved " + entries.size() + " entries for " + username);
+            return entries;
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting all entries: ", e);
+            return new ArrayList<>();
+        } finally {
+            if (realm != null) {
+                RealmScope.release(realm);
+            }
+        }
+    }
+
+    /**
+     * Get one page of weight entries, newest first.
+     * Only the rows in the page are copied out of the lazily-evaluated results,
+     * so the cost of a page does not depend on how long the history is.
+     */
+    public List<WeightEntry> getWeightEntriesPage(String username, int offset, int pageSize) {
+        return getWeightEntriesPage(getUserId(username), offset, pageSize);
+    }
+
+    /**
+     * Get one page of weight entries, newest first.
+     * Only the rows in the page are copied out of the lazily-evaluated results,
+     * so the cost of a page does not depend on how long the history is.
+     */
+    public List<WeightEntry> getWeightEntriesPage(int userId, int offset, int pageSize) {
+        Realm realm = null;
+        try {
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, userId);
+            
+            if (user == null || offset < 0 || pageSize <= 0) {
+                return new ArrayList<>();
+            }
+            
+            // Id tie-break keeps page boundaries stable for equal timestamps
+            RealmResults<WeightEntryRealm> results = entriesOf(user)
+                    .sort(NEWEST_FIRST_FIELDS, NEWEST_FIRST_ORDER)
+                    .findAll();
+            
+            int end = Math.min(results.size(), offset + pageSize);
+            List<WeightEntry> page = new ArrayList<>(Math.max(0, end - offset));
+            for (int i = offset; i < end; i++) {
+                page.add(convertToWeightEntry(results.get(i)));
+            }
+            
+            Log.d(TAG, "Retrieved page of " + page.size() + " entries at offset " + offset + " for user ID " + userId);
+            return page;
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting entries page: ", e);
+            return new ArrayList<>();
+        } finally {
+            if (realm != null) {
+                RealmScope.release(realm);
+            }
+        }
+    }
+
+    /**
+     * Get most recent weight entry
+     */
+    public WeightEntry getMostRecentWeightEntry(String username) {
+        return getMostRecentWeightEntryByActualDate(username);
+    }
+
+    /**
+     * Update weight entry
+     */
+    public boolean updateWeightEntry(int entryId, double weight, String date, String time) {
+        Realm realm = null;
+        try {
+            realm = RealmScope.acquire();
             WeightEntryRealm entry = realm.where(WeightEntryRealm.class)
                     .equalTo("id", entryId)
                     .findFirst();
             
             if (entry != null) {
                 realm.beginTransaction();
-                entry.setWeight(weight);
-                entry.setDate(date);
-                entry.setTime(time);
+                applyEntryUpdate(realm, entry, weight, date, time);
                 realm.commitTransaction();
                 Log.d(TAG, "Updated entry ID: " + entryId);
                 return true;
@@ -682,7 +1147,7 @@ public class DatabaseHelper {
             return false;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
@@ -693,14 +1158,14 @@ public class DatabaseHelper {
     public boolean deleteWeightEntry(int entryId) {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
+            realm = RealmScope.acquire();
             WeightEntryRealm entry = realm.where(WeightEntryRealm.class)
                     .equalTo("id", entryId)
                     .findFirst();
             
             if (entry != null) {
                 realm.beginTransaction();
-                entry.deleteFromRealm();
+                applyEntryDelete(realm, entry);
                 realm.commitTransaction();
                 Log.d(TAG, "Deleted entry ID: " + entryId);
                 return true;
@@ -715,7 +1180,298 @@ public class DatabaseHelper {
             return false;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
+            }
+        }
+    }
+
+    /**
+     * Delete several of a user's entries in one transaction. Ids owned by other
+     * users are ignored. Returns the number deleted, or -1 on failure.
+     *
+     * The matched rows are deleted one at a time rather than with a single
+     * deleteAllFromRealm, so the incremental aggregate, regression and rollup
+     * hooks can run per row. Each hook's min/max/latest lookup then sees only
+     * the rows that remain, which costs a few indexed lookups per deleted row
+     * instead of rebuilding everything from the whole history. The trend is
+     * recomputed once, from the earliest deleted entry forward.
+     */
+    public int deleteWeightEntries(int userId, Collection<Integer> entryIds) {
+        Realm realm = null;
+        try {
+            realm = RealmScope.acquire();
+            realm.beginTransaction();
+            
+            UserRealm user = findUser(realm, userId);
+            if (user == null) {
+                realm.cancelTransaction();
+                return -1;
+            }
+            
+            RealmResults<WeightEntryRealm> entries = entriesOf(realm, userId)
+                    .in("id", entryIds.toArray(new Integer[0]))
+                    .findAll();
+            int deleted = entries.size();
+            if (deleted == 0) {
+                realm.cancelTransaction();
+                return 0;
+            }
+            
+            // Delete row by row so each hook's boundary lookups see only what remains
+            long earliestTimestamp = Long.MAX_VALUE;
+            for (WeightEntryRealm entry : entries.createSnapshot()) {
+                earliestTimestamp = Math.min(earliestTimestamp, entry.getTimestampMillis());
+                UserAggregates.onEntryRemoved(user, entry);
+                WeightRegression.onEntryRemoved(user, entry);
+                WeightRollups.onEntryRemoved(realm, user, entry);
+                entry.deleteFromRealm();
+            }
+            WeightTrend.onEntriesRemoved(user, earliestTimestamp);
+            
+            WeightEntryRealm latest = findLatestEntry(realm, user);
+            if (latest != null) {
+                user.setCurrentWeight(latest.getWeight());
+            }
+            realm.commitTransaction();
+            
+            Log.d(TAG, "Deleted " + deleted + " entries for user ID " + userId + " in one transaction");
+            return deleted;
+        } catch (Exception e) {
+            if (realm != null && realm.isInTransaction()) {
+                realm.cancelTransaction();
+            }
+            Log.e(TAG, "Error deleting entries: ", e);
+            return -1;
+        } finally {
+            if (realm != null) {
+                RealmScope.release(realm);
+            }
+        }
+    }
+
+    /**
+     * Queue an entry update on the group-commit write queue. Updates and deletes
+     * arriving within a few milliseconds share one transaction, and the owner's
+     * current weight is refreshed once per batch. Completes on the main thread.
+     */
+    public CompletableFuture<Boolean> queueWeightEntryUpdate(int entryId, double weight, String date, String time) {
+        return ENTRY_WRITES.submit(realm -> {
+            WeightEntryRealm entry = findEntry(realm, entryId);
+            return entry != null ? applyEntryUpdate(realm, entry, weight, date, time) : -1;
+        });
+    }
+
+    /**
+     * Queue an entry delete on the group-commit write queue; see queueWeightEntryUpdate
+     */
+    public CompletableFuture<Boolean> queueWeightEntryDelete(int entryId) {
+        return ENTRY_WRITES.submit(realm -> {
+            WeightEntryRealm entry = findEntry(realm, entryId);
+            return entry != null ? applyEntryDelete(realm, entry) : -1;
+        });
+    }
+
+    /**
+     * Batch sizes achieved by the entry write queue so far
+     */
+    static GroupCommitQueue.Metrics getWriteQueueMetrics() {
+        return ENTRY_WRITES.getMetrics();
+    }
+
+    /**
+     * Run one batch of queued entry writes in a single transaction
+     */
+    private static boolean[] commitEntryWrites(List<EntryWrite> batch) {
+        Realm realm = null;
+        try {
+            realm = RealmScope.acquire();
+            realm.beginTransaction();
+            
+            boolean[] results = new boolean[batch.size()];
+            Set<Integer> touchedUsers = new HashSet<>();
+            for (int i = 0; i < batch.size(); i++) {
+                int userId = batch.get(i).apply(realm);
+                results[i] = userId != -1;
+                if (userId != -1) {
+                    touchedUsers.add(userId);
+                }
+            }
+            
+            // Current weight follows the newest entry; once per user, not per write
+            for (int userId : touchedUsers) {
+                UserRealm user = findUser(realm, userId);
+                WeightEntryRealm latest = findLatestEntry(realm, user);
+                if (latest != null) {
+                    user.setCurrentWeight(latest.getWeight());
+                }
+            }
+            realm.commitTransaction();
+            
+            Log.d(TAG, "Committed " + batch.size() + " queued entry write(s) in one transaction");
+            return results;
+        } catch (RuntimeException e) {
+            if (realm != null && realm.isInTransaction()) {
+                realm.cancelTransaction();
+            }
+            Log.e(TAG, "Error committing queued entry writes: ", e);
+            throw e;
+        } finally {
+            if (realm != null) {
+                RealmScope.release(realm);
+            }
+        }
+    }
+
+    // ========================================
+    // ROLLUP METHODS
+    // ========================================
+
+    /**
+     * Get day/week/month rollups whose bucket starts in [fromMillis, toMillis), oldest first.
+     * Buckets are rebuilt first if a user with entries has none yet (e.g. after upgrading)
+     * or if they were aligned in a different time zone.
+     */
+    public List<WeightRollup> getWeightRollups(String username, RollupPeriod period, long fromMillis, long toMillis) {
+        Realm realm = null;
+        try {
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, username);
+            
+            if (user == null) {
+                return new ArrayList<>();
+            }
+            
+            boolean missing = user.getEntryCount() > 0 && realm.where(WeightRollupRealm.class)
+                    .equalTo("userId", user.getId())
+                    .findFirst() == null;
+            if (missing || WeightRollups.isStale(user)) {
+                realm.beginTransaction();
+                WeightRollups.rebuild(realm, user);
+                realm.commitTransaction();
+            }
+            
+            RealmResults<WeightRollupRealm> results = realm.where(WeightRollupRealm.class)
+                    .equalTo("userId", user.getId())
+                    .equalTo("period", period.name())
+                    .greaterThanOrEqualTo("periodStartMillis", fromMillis)
+                    .lessThan("periodStartMillis", toMillis)
+                    .sort("periodStartMillis", Sort.ASCENDING)
+                    .findAll();
+            
+            List<WeightRollup> rollups = new ArrayList<>(results.size());
+            for (WeightRollupRealm rollup : results) {
+                rollups.add(new WeightRollup(
+                        period,
+                        rollup.getPeriodStartMillis(),
+                        rollup.getCount(),
+                        rollup.getMinWeight(),
+                        rollup.getMaxWeight(),
+                        rollup.getWeightSum() / rollup.getCount(),
+                        rollup.getLastWeight()
+                ));
+            }
+            
+            Log.d(TAG, "Retrieved " + rollups.size() + " " + period + " rollups for " + username);
+            return rollups;
+        } catch (Exception e) {
+            if (realm != null && realm.isInTransaction()) {
+                realm.cancelTransaction();
+            }
+            Log.e(TAG, "Error getting weight rollups: ", e);
+            return new ArrayList<>();
+        } finally {
+            if (realm != null) {
+                RealmScope.release(realm);
+            }
+        }
+    }
+
+    /**
+     * Rebuild all of a user's rollups from raw entries
+     */
+    public boolean rebuildWeightRollups(String username) {
+        Realm realm = null;
+        try {
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, username);
+            
+            if (user == null) {
+                return false;
+            }
+            
+            realm.beginTransaction();
+            WeightRollups.rebuild(realm, user);
+            realm.commitTransaction();
+            Log.d(TAG, "Rebuilt weight rollups for " + username);
+            return true;
+        } catch (Exception e) {
+            if (realm != null && realm.isInTransaction()) {
+                realm.cancelTransaction();
+            }
+            Log.e(TAG, "Error rebuilding weight rollups: ", e);
+            return false;
+        } finally {
+            if (realm != null) {
+                RealmScope.release(realm);
+            }
+        }
+    }
+
+    // ========================================
+    // STATISTICS METHODS
+    // ========================================
+
+    /**
+     * Get mean, spread, extremes, weekly rate and longest gap over the user's whole history.
+     * Computed in one pass over a lazily read result and cached until the user's data changes.
+     */
+    public WeightStatistics getWeightStatistics(String username) {
+        return getWeightStatistics(getUserId(username));
+    }
+
+    /**
+     * Get mean, spread, extremes, weekly rate and longest gap over the user's whole history.
+     * Computed in one pass over a lazily read result and cached until the user's data changes.
+     */
+    public WeightStatistics getWeightStatistics(int userId) {
+        Realm realm = null;
+        try {
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, userId);
+            
+            if (user == null) {
+                Log.e(TAG, "No user found when getting statistics: user ID " + userId);
+                return null;
+            }
+            
+            long dataVersion = user.getDataVersion();
+            WeightStatistics cached = STATISTICS_CACHE.get(user.getId());
+            if (cached != null && cached.getDataVersion() == dataVersion) {
+                return cached;
+            }
+            
+            long startTime = System.nanoTime();
+            
+            // RealmResults are read row by row; no list of the history is built
+            RealmResults<WeightEntryRealm> entries = entriesOf(user)
+                    .sort("timestampMillis", Sort.ASCENDING)
+                    .findAll();
+            WeightStatistics.Accumulator accumulator = new WeightStatistics.Accumulator();
+            for (WeightEntryRealm entry : entries) {
+                accumulator.add(entry.getTimestampMillis(), entry.getWeight());
+            }
+            WeightStatistics statistics = accumulator.build(dataVersion);
+            
+            STATISTICS_CACHE.put(user.getId(), statistics);
+            Log.d(TAG, "Computed statistics over " + statistics.getCount() + " entries in "
+                    + (System.nanoTime() - startTime) / 1_000_000 + " ms: " + statistics);
+            return statistics;
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting weight statistics: ", e);
+            return null;
+        } finally {
+            if (realm != null) {
+                RealmScope.release(realm);
             }
         }
     }
@@ -724,15 +1480,20 @@ public class DatabaseHelper {
      * Get entry count for user
      */
     public int getEntryCount(String username) {
+        return getEntryCount(getUserId(username));
+    }
+
+    /**
+     * Get entry count for user
+     */
+    public int getEntryCount(int userId) {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
-            UserRealm user = realm.where(UserRealm.class)
-                    .equalTo("username", username)
-                    .findFirst();
+            realm = RealmScope.acquire();
+            UserRealm user = findUser(realm, userId);
             
             if (user != null) {
-                return user.getWeightEntries().size();
+                return user.getEntryCount();
             }
             
             return 0;
@@ -741,7 +1502,7 @@ public class DatabaseHelper {
             return 0;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
             }
         }
     }
@@ -752,33 +1513,516 @@ public class DatabaseHelper {
     public int getUserCount() {
         Realm realm = null;
         try {
-            realm = Realm.getDefaultInstance();
+            realm = RealmScope.acquire();
             return (int) realm.where(UserRealm.class).count();
         } catch (Exception e) {
             Log.e(TAG, "Error getting user count: ", e);
             return 0;
         } finally {
             if (realm != null) {
-                realm.close();
+                RealmScope.release(realm);
+            }
+        }
+    }
+
+    // ========================================
+    // ASYNC METHODS
+    // ========================================
+    // Each variant runs its synchronous counterpart on DatabaseExecutor and
+    // completes on the main thread, so callers can update views in thenAccept().
+
+    public CompletableFuture<Long> createUserAsync(String username, String password) {
+        return DatabaseExecutor.supply(() -> createUser(username, password));
+    }
+
+    public CompletableFuture<Boolean> userExistsAsync(String username) {
+        return DatabaseExecutor.supply(() -> userExists(username));
+    }
+
+    public CompletableFuture<Boolean> validateUserAsync(String username, String password) {
+        return DatabaseExecutor.supply(() -> validateUser(username, password));
+    }
+
+    public CompletableFuture<Integer> authenticateUserAsync(String username, String password) {
+        return DatabaseExecutor.supply(() -> authenticateUser(username, password));
+    }
+
+    public CompletableFuture<Integer> getUserIdAsync(String username) {
+        return DatabaseExecutor.supply(() -> getUserId(username));
+    }
+
+    public CompletableFuture<Double> getCurrentWeightAsync(String username) {
+        return DatabaseExecutor.supply(() -> getCurrentWeight(username));
+    }
+
+    public CompletableFuture<Double> getGoalWeightAsync(String username) {
+        return DatabaseExecutor.supply(() -> getGoalWeight(username));
+    }
+
+    public CompletableFuture<Double> getStartingWeightAsync(String username) {
+        return DatabaseExecutor.supply(() -> getStartingWeight(username));
+    }
+
+    public CompletableFuture<Double> getTrendWeightAsync(String username) {
+        return DatabaseExecutor.supply(() -> getTrendWeight(username));
+    }
+
+    public CompletableFuture<UserProfileSnapshot> getUserProfileSnapshotAsync(String username) {
+        return DatabaseExecutor.supply(() -> getUserProfileSnapshot(username));
+    }
+
+    public CompletableFuture<UserProfileSnapshot> getUserProfileSnapshotAsync(int userId) {
+        return DatabaseExecutor.supply(() -> getUserProfileSnapshot(userId));
+    }
+
+    public CompletableFuture<Boolean> updateCurrentWeightAsync(String username, double weight) {
+        return DatabaseExecutor.supply(() -> updateCurrentWeight(username, weight));
+    }
+
+    public CompletableFuture<Boolean> updateGoalWeightAsync(String username, double weight) {
+        return DatabaseExecutor.supply(() -> updateGoalWeight(username, weight));
+    }
+
+    public CompletableFuture<Boolean> updateStartingWeightAsync(String username, double weight) {
+        return DatabaseExecutor.supply(() -> updateStartingWeight(username, weight));
+    }
+
+    public CompletableFuture<Boolean> updateUserProfileAsync(int userId, ProfileUpdate update) {
+        return DatabaseExecutor.supply(() -> updateUserProfile(userId, update));
+    }
+
+    public CompletableFuture<Boolean> deleteAllUserEntriesAsync(int userId) {
+        return DatabaseExecutor.supply(() -> deleteAllUserEntries(userId));
+    }
+
+    public CompletableFuture<Boolean> deleteUserAsync(int userId) {
+        return DatabaseExecutor.supply(() -> deleteUser(userId));
+    }
+
+    public CompletableFuture<Boolean> deleteUserAccountAsync(int userId, DeletionProgressListener progressListener) {
+        return DatabaseExecutor.supply(() -> deleteUserAccount(userId, progressListener == null ? null
+                : (deleted, total) -> DatabaseExecutor.mainThread().execute(() -> progressListener.onProgress(deleted, total))));
+    }
+
+    public CompletableFuture<Boolean> deleteUserByUsernameAsync(String username) {
+        return DatabaseExecutor.supply(() -> deleteUserByUsername(username));
+    }
+
+    public CompletableFuture<Boolean> userHasEntriesAsync(String username) {
+        return DatabaseExecutor.supply(() -> userHasEntries(username));
+    }
+
+    public CompletableFuture<Long> addWeightEntryAsync(WeightEntry entry) {
+        return DatabaseExecutor.supply(() -> addWeightEntry(entry));
+    }
+
+    public CompletableFuture<WeighInResult> recordWeighInAsync(int userId, double weight, long timestampMillis) {
+        return DatabaseExecutor.supply(() -> recordWeighIn(userId, weight, timestampMillis));
+    }
+
+    /**
+     * Async import; progress callbacks are delivered on the main thread
+     */
+    public CompletableFuture<Integer> importWeightEntriesAsync(int userId, Iterable<WeightEntry> entries,
+                                                               ImportProgressListener progressListener) {
+        return DatabaseExecutor.supply(() -> importWeightEntries(userId, entries, progressListener == null ? null
+                : count -> DatabaseExecutor.mainThread().execute(() -> progressListener.onProgress(count))));
+    }
+
+    public CompletableFuture<Integer> exportWeightHistoryAsync(String username, WritableByteChannel channel) {
+        return DatabaseExecutor.supply(() -> exportWeightHistory(username, channel));
+    }
+
+    public CompletableFuture<Integer> importWeightHistoryAsync(int userId, ReadableByteChannel channel,
+                                                               ImportProgressListener progressListener) {
+        return DatabaseExecutor.supply(() -> importWeightHistory(userId, channel, progressListener == null ? null
+                : count -> DatabaseExecutor.mainThread().execute(() -> progressListener.onProgress(count))));
+    }
+
+    public CompletableFuture<Boolean> updateCurrentWeightFromMostRecentAsync(String username) {
+        return DatabaseExecutor.supply(() -> updateCurrentWeightFromMostRecent(username));
+    }
+
+    public CompletableFuture<Boolean> updateCurrentWeightFromMostRecentAsync(int userId) {
+        return DatabaseExecutor.supply(() -> updateCurrentWeightFromMostRecent(userId));
+    }
+
+    public CompletableFuture<WeightEntry> getMostRecentWeightEntryByActualDateAsync(String username) {
+        return DatabaseExecutor.supply(() -> getMostRecentWeightEntryByActualDate(username));
+    }
+
+    public CompletableFuture<List<WeightEntry>> getRecentWeightEntriesAsync(String username, int limit) {
+        return DatabaseExecutor.supply(() -> getRecentWeightEntries(username, limit));
+    }
+
+    public CompletableFuture<List<WeightEntry>> getRecentWeightEntriesAsync(int userId, int limit) {
+        return DatabaseExecutor.supply(() -> getRecentWeightEntries(userId, limit));
+    }
+
+    public CompletableFuture<List<WeightEntry>> getAllWeightEntriesAsync(String username) {
+        return DatabaseExecutor.supply(() -> getAllWeightEntries(username));
+    }
+
+    public CompletableFuture<List<WeightEntry>> getWeightEntriesPageAsync(String username, int offset, int pageSize) {
+        return DatabaseExecutor.supply(() -> getWeightEntriesPage(username, offset, pageSize));
+    }
+
+    public CompletableFuture<List<WeightEntry>> getWeightEntriesPageAsync(int userId, int offset, int pageSize) {
+        return DatabaseExecutor.supply(() -> getWeightEntriesPage(userId, offset, pageSize));
+    }
+
+    public CompletableFuture<WeightEntry> getMostRecentWeightEntryAsync(String username) {
+        return DatabaseExecutor.supply(() -> getMostRecentWeightEntry(username));
+    }
+
+    public CompletableFuture<Boolean> updateWeightEntryAsync(int entryId, double weight, String date, String time) {
+        return DatabaseExecutor.supply(() -> updateWeightEntry(entryId, weight, date, time));
+    }
+
+    public CompletableFuture<Boolean> deleteWeightEntryAsync(int entryId) {
+        return DatabaseExecutor.supply(() -> deleteWeightEntry(entryId));
+    }
+
+    public CompletableFuture<Integer> deleteWeightEntriesAsync(int userId, Collection<Integer> entryIds) {
+        return DatabaseExecutor.supply(() -> deleteWeightEntries(userId, entryIds));
+    }
+
+    public CompletableFuture<Integer> getEntryCountAsync(String username) {
+        return DatabaseExecutor.supply(() -> getEntryCount(username));
+    }
+
+    public CompletableFuture<Integer> getEntryCountAsync(int userId) {
+        return DatabaseExecutor.supply(() -> getEntryCount(userId));
+    }
+
+    public CompletableFuture<List<WeightRollup>> getWeightRollupsAsync(String username, RollupPeriod period,
+                                                                       long fromMillis, long toMillis) {
+        return DatabaseExecutor.supply(() -> getWeightRollups(username, period, fromMillis, toMillis));
+    }
+
+    public CompletableFuture<Boolean> rebuildWeightRollupsAsync(String username) {
+        return DatabaseExecutor.supply(() -> rebuildWeightRollups(username));
+    }
+
+    public CompletableFuture<WeightStatistics> getWeightStatisticsAsync(String username) {
+        return DatabaseExecutor.supply(() -> getWeightStatistics(username));
+    }
+
+    public CompletableFuture<WeightStatistics> getWeightStatisticsAsync(int userId) {
+        return DatabaseExecutor.supply(() -> getWeightStatistics(userId));
+    }
+
+    public CompletableFuture<Integer> getUserCountAsync() {
+        return DatabaseExecutor.supply(this::getUserCount);
+    }
+
+    // ========================================
+    // OBSERVABLE QUERIES
+    // ========================================
+
+    /**
+     * Run onChange once the user's row is loaded and again after every commit
+     * that changes it. Must be called on a Looper thread (normally the main thread).
+     *
+     * Only the user row is watched. That covers the profile weights and the
+     * aggregates, and every entry write also bumps the user's dataVersion through
+     * UserAggregates. Lists of entries should use observeEntries instead, which
+     * watches the entries themselves.
+     */
+    public RealmSubscription observeUserChanges(String username, Runnable onChange) {
+        Realm realm = RealmScope.pin();
+        RealmResults<UserRealm> users = realm.where(UserRealm.class)
+                .equalTo("username", username)
+                .findAllAsync();
+        
+        users.addChangeListener((results, changeSet) -> onChange.run());
+        return new RealmSubscription(realm, users);
+    }
+
+    public RealmSubscription observeUserChanges(int userId, Runnable onChange) {
+        Realm realm = RealmScope.pin();
+        RealmResults<UserRealm> users = realm.where(UserRealm.class)
+                .equalTo("id", userId)
+                .findAllAsync();
+        
+        users.addChangeListener((results, changeSet) -> onChange.run());
+        return new RealmSubscription(realm, users);
+    }
+
+    /**
+     * Watch a user's entries newest first, the order getWeightEntriesPage and
+     * getRecentWeightEntries return, so change set positions match those lists.
+     * The first delivery has state INITIAL. Must be called on a Looper thread.
+     */
+    public RealmSubscription observeEntries(int userId, EntryChangeObserver observer) {
+        Realm realm = RealmScope.pin();
+        RealmResults<WeightEntryRealm> entries = entriesOf(realm, userId)
+                .sort(NEWEST_FIRST_FIELDS, NEWEST_FIRST_ORDER)
+                .findAllAsync();
+        
+        entries.addChangeListener((results, changeSet) -> observer.onEntriesChanged(changeSet));
+        return new RealmSubscription(realm, entries);
+    }
+
+    /**
+     * True if the change set is the initial load or inserts, deletes or modifies
+     * a row before position limit of the newest-first list
+     */
+    public static boolean changesWithin(OrderedCollectionChangeSet changeSet, int limit) {
+        if (changeSet.getState() != OrderedCollectionChangeSet.State.UPDATE) {
+            return true;
+        }
+        return startsBefore(changeSet.getDeletionRanges(), limit)
+                || startsBefore(changeSet.getInsertionRanges(), limit)
+                || startsBefore(changeSet.getChangeRanges(), limit);
+    }
+
+    private static boolean startsBefore(OrderedCollectionChangeSet.Range[] ranges, int limit) {
+        for (OrderedCollectionChangeSet.Range range : ranges) {
+            if (range.startIndex < limit) {
+                return true;
             }
         }
+        return false;
+    }
+
+    /**
+     * Deliver a fresh UserProfileSnapshot whenever the user's data changes
+     */
+    public RealmSubscription observeUserProfile(String username, DataObserver<UserProfileSnapshot> observer) {
+        return observeUserChanges(username, latestOnly(() -> getUserProfileSnapshotAsync(username), observer));
+    }
+
+    public RealmSubscription observeUserProfile(int userId, DataObserver<UserProfileSnapshot> observer) {
+        return observeUserChanges(userId, latestOnly(() -> getUserProfileSnapshotAsync(userId), observer));
+    }
+
+    /**
+     * Deliver the newest limit entries, re-reading them only when a change lands among them
+     */
+    public RealmSubscription observeRecentEntries(int userId, int limit, DataObserver<List<WeightEntry>> observer) {
+        Runnable refresh = latestOnly(() -> getRecentWeightEntriesAsync(userId, limit), observer);
+        return observeEntries(userId, changeSet -> {
+            if (changesWithin(changeSet, limit)) {
+                refresh.run();
+            }
+        });
+    }
+
+    /**
+     * Re-run the background fetch on each change and drop results overtaken by a newer fetch
+     */
+    private static <T> Runnable latestOnly(Supplier<CompletableFuture<T>> fetch, DataObserver<T> observer) {
+        int[] latestRequest = new int[1];
+        return () -> {
+            int request = ++latestRequest[0];
+            fetch.get().thenAccept(data -> {
+                if (request == latestRequest[0]) {
+                    observer.onChanged(data);
+                }
+            });
+        };
     }
 
     // ========================================
     // HELPER METHODS
     // ========================================
 
+    /**
+     * Look up a user by username: a primary-key hit once the id is cached,
+     * otherwise one indexed query
+     */
+    private static UserRealm findUser(Realm realm, String username) {
+        if (username == null) {
+            return null;
+        }
+        
+        Integer cachedId = USER_IDS.get(username);
+        if (cachedId != null) {
+            UserRealm user = findUser(realm, cachedId);
+            if (user != null && username.equals(user.getUsername())) {
+                return user;
+            }
+            USER_IDS.remove(username); // Stale: deleted or replaced
+        }
+        
+        UserRealm user = realm.where(UserRealm.class)
+                .equalTo("username", username)
+                .findFirst();
+        if (user != null) {
+            USER_IDS.put(username, user.getId());
+        }
+        return user;
+    }
+
+    private static UserRealm findUser(Realm realm, int userId) {
+        return realm.where(UserRealm.class)
+                .equalTo("id", userId)
+                .findFirst();
+    }
+
+    /**
+     * Bulk-delete a user's entries by the indexed userId, in batches so progress
+     * can be reported. Must be called inside a write transaction.
+     */
+    private static int deleteEntriesForUser(Realm realm, int userId, DeletionProgressListener progressListener) {
+        int total = (int) entriesOf(realm, userId).count();
+
+        int deleted = 0;
+        while (deleted < total) {
+            RealmResults<WeightEntryRealm> batch = entriesOf(realm, userId)
+                    .limit(DELETE_BATCH_SIZE)
+                    .findAll();
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            deleted += batch.size();
+            batch.deleteAllFromRealm();
+            if (progressListener != null) {
+                progressListener.onProgress(deleted, total);
+            }
+        }
+        return deleted;
+    }
+
+    private static WeightEntryRealm findEntry(Realm realm, int entryId) {
+        return realm.where(WeightEntryRealm.class)
+                .equalTo("id", entryId)
+                .findFirst();
+    }
+
+    /**
+     * Rewrite an entry and move it through the maintained aggregates.
+     * Must be called inside a write transaction; returns the owner's id.
+     */
+    private static int applyEntryUpdate(Realm realm, WeightEntryRealm entry, double weight, String date, String time) {
+        UserRealm user = findUser(realm, entry.getUserId());
+        
+        // Swap the old values out of the aggregates and the new ones in
+        if (user != null) {
+            UserAggregates.onEntryRemoved(user, entry);
+            WeightTrend.onEntryRemoved(user, entry);
+            WeightRegression.onEntryRemoved(user, entry);
+            WeightRollups.onEntryRemoved(realm, user, entry);
+        }
+        entry.setWeight(weight);
+        entry.setDate(date);
+        entry.setTime(time);
+        entry.setTimestampMillis(toTimestampMillis(date, time));
+        if (user != null) {
+            UserAggregates.onEntryAdded(user, entry);
+            WeightTrend.onEntryAdded(user, entry);
+            WeightRegression.onEntryAdded(user, entry);
+            WeightRollups.onEntryAdded(realm, user, entry);
+        }
+        return entry.getUserId();
+    }
+
+    /**
+     * Take an entry out of the aggregates and delete it.
+     * Must be called inside a write transaction; returns the owner's id.
+     */
+    private static int applyEntryDelete(Realm realm, WeightEntryRealm entry) {
+        int userId = entry.getUserId();
+        UserRealm user = findUser(realm, userId);
+        if (user != null) {
+            UserAggregates.onEntryRemoved(user, entry);
+            WeightTrend.onEntryRemoved(user, entry);
+            WeightRegression.onEntryRemoved(user, entry);
+            WeightRollups.onEntryRemoved(realm, user, entry);
+        }
+        entry.deleteFromRealm();
+        return userId;
+    }
+
+    /**
+     * A user's entries, matched on the indexed WeightEntryRealm.userId
+     */
+    static RealmQuery<WeightEntryRealm> entriesOf(Realm realm, int userId) {
+        return realm.where(WeightEntryRealm.class).equalTo("userId", userId);
+    }
+
+    static RealmQuery<WeightEntryRealm> entriesOf(UserRealm user) {
+        return entriesOf(user.getRealm(), user.getId());
+    }
+
+    /**
+     * Reserve count consecutive ids for a model and return the first one.
+     * Must be called inside a write transaction so the counter and the new
+     * objects commit together.
+     */
+    static long allocateIds(Realm realm, Class<? extends RealmModel> modelClass, int count) {
+        String name = modelClass.getSimpleName();
+        SequenceRealm sequence = realm.where(SequenceRealm.class)
+                .equalTo("name", name)
+                .findFirst();
+
+        if (sequence == null) {
+            // First allocation for this model: start after any existing ids
+            Number maxId = realm.where(modelClass).max("id");
+            sequence = realm.createObject(SequenceRealm.class, name);
+            sequence.setValue(maxId == null ? 0 : maxId.longValue());
+        }
+
+        long firstId = sequence.getValue() + 1;
+        sequence.setValue(sequence.getValue() + count);
+        return firstId;
+    }
+
+    /**
+     * Latest entry for a user via the maintained latestEntryId, or null
+     */
+    private static WeightEntryRealm findLatestEntry(Realm realm, UserRealm user) {
+        if (user == null || user.getEntryCount() == 0) {
+            return null;
+        }
+        return realm.where(WeightEntryRealm.class)
+                .equalTo("id", user.getLatestEntryId())
+                .findFirst();
+    }
+
+    /**
+     * Flag BCrypt work on the main thread to the debug StrictMode policy
+     */
+    private static void noteCryptoCall(String operation) {
+        if (DatabaseExecutor.isMainThread()) {
+            StrictMode.noteSlowCall(operation + " on main thread");
+        }
+    }
+
+    /**
+     * Convert stored date/time strings to epoch millis for the timestampMillis index
+     */
+    static long toTimestampMillis(String date, String time) {
+        return toTimestampMillis(new SimpleDateFormat(DATE_TIME_PATTERN, Locale.getDefault()), date, time);
+    }
+
+    private static long toTimestampMillis(SimpleDateFormat format, String date, String time) {
+        long timestampMillis = WeightEntry.sortKey(format, date, time);
+        if (timestampMillis == 0L) {
+            Log.e(TAG, "Error parsing date: " + date + " " + time);
+        }
+        return timestampMillis;
+    }
+
     /**
      * Convert Realm object to app WeightEntry object
      */
     private WeightEntry convertToWeightEntry(WeightEntryRealm realmEntry) {
+        // Sort key is computed once here so later comparisons never parse strings
+        long timestampMillis = realmEntry.getTimestampMillis();
+        if (timestampMillis == 0) {
+            timestampMillis = toTimestampMillis(realmEntry.getDate(), realmEntry.getTime());
+        }
         return new WeightEntry(
                 realmEntry.getId(),
                 realmEntry.getUserId(),
                 realmEntry.getWeight(),
                 realmEntry.getDate(),
                 realmEntry.getTime(),
-                realmEntry.getNotes()
+                realmEntry.getNotes(),
+                timestampMillis
         );
     }
 }
@@ -267,28 +267,33 @@ public class EditEntryDialog extends Dialog {
 
             Log.d(TAG, "Database date format: " + dbDateString + ", Database time format: " + dbTimeString);
 
-            // Update the entry
-            boolean updated = databaseHelper.updateWeightEntry(weightEntry.getId(), weight, dbDateString, dbTimeString);
-            Log.d(TAG, "Database update result: " + updated);
-
-            if (updated) {
-                // Update current weight with the most recent entry by actual date/time
-                boolean weightUpdated = databaseHelper.updateCurrentWeightFromMostRecent(username);
-                Log.d(TAG, "Current weight update result: " + weightUpdated);
-
-                showToast("Weight entry updated successfully!");
-
-                // Notify listener
-                if (listener != null) {
-                    listener.onEntryUpdated();
+            // Queued so rapid successive edits share one transaction; the current
+            // weight is refreshed in that same transaction
+            btnUpdateEntry.setEnabled(false);
+            databaseHelper.queueWeightEntryUpdate(weightEntry.getId(), weight, dbDateString, dbTimeString).thenAccept(updated -> {
+                Log.d(TAG, "Database update result: " + updated);
+                btnUpdateEntry.setEnabled(true);
+
+                if (updated) {
+                    showToast("Weight entry updated successfully!");
+
+                    // Notify listener
+                    if (listener != null) {
+                        listener.onEntryUpdated();
+                    }
+
+                    dismiss();
+                    Log.d(TAG, "Weight entry updated successfully");
+                } else {
+                    showToast("Failed to update weight entry. Please try again.");
+                    Log.e(TAG, "Failed to update weight entry in database");
                 }
-
-                dismiss();
-                Log.d(TAG, "Weight entry updated successfully");
-            } else {
-                showToast("Failed to update weight entry. Please try again.");
-                Log.e(TAG, "Failed to update weight entry in database");
-            }
+            }).exceptionally(e -> {
+                btnUpdateEntry.setEnabled(true);
+                Log.e(TAG, "Error updating weight entry: ", e);
+                showToast("Error updating weight entry: " + e.getMessage());
+                return null;
+            });
 
         } catch (NumberFormatException e) {
             Log.e(TAG, "Number format error: ", e);
@@ -30,10 +30,16 @@ public class EditWeightDialog extends Dialog {
     private String username;
     private DatabaseHelper databaseHelper;
     private OnWeightUpdatedListener listener;
+    private UserProfileSnapshot loadedProfile;
 
     // Interface for callback
     public interface OnWeightUpdatedListener {
         void onWeightUpdated();
+
+        // Receives exactly what was written; override to update views without re-reading the profile
+        default void onProfileUpdated(ProfileUpdate update) {
+            onWeightUpdated();
+        }
     }
 
     public EditWeightDialog(@NonNull Context context, String username, DatabaseHelper databaseHelper) {
@@ -99,31 +105,46 @@ public class EditWeightDialog extends Dialog {
     }
 
     private void loadCurrentWeights() {
-        try {
-            double startingWeight = databaseHelper.getStartingWeight(username);
-            double currentWeight = databaseHelper.getCurrentWeight(username);
-            double goalWeight = databaseHelper.getGoalWeight(username);
+        databaseHelper.getUserProfileSnapshotAsync(username)
+                .thenAccept(this::displayCurrentWeights)
+                .exceptionally(e -> {
+                    Log.e(TAG, "Error loading current weights: ", e);
+                    showToast("Error loading current weights");
+                    return null;
+                });
+    }
 
-            // Only set starting weight if the field exists
-            if (etStartingWeight != null && startingWeight > 0) {
-                etStartingWeight.setText(String.valueOf(startingWeight));
-            }
+    private void displayCurrentWeights(UserProfileSnapshot profile) {
+        if (!isShowing()) {
+            return;
+        }
 
-            if (currentWeight > 0) {
-                etCurrentWeight.setText(String.valueOf(currentWeight));
-            }
+        if (profile == null) {
+            showToast("Error loading current weights");
+            return;
+        }
+        loadedProfile = profile;
 
-            if (goalWeight > 0) {
-                etGoalWeight.setText(String.valueOf(goalWeight));
-            }
+        double startingWeight = profile.getStartingWeight();
+        double currentWeight = profile.getCurrentWeight();
+        double goalWeight = profile.getGoalWeight();
 
-            updateWeightCalculations();
+        // Only set starting weight if the field exists
+        if (etStartingWeight != null && startingWeight > 0) {
+            etStartingWeight.setText(String.valueOf(startingWeight));
+        }
 
-            Log.d(TAG, "Loaded weights - Starting: " + startingWeight + ", Current: " + currentWeight + ", Goal: " + goalWeight);
-        } catch (Exception e) {
-            Log.e(TAG, "Error loading current weights: ", e);
-            showToast("Error loading current weights");
+        if (currentWeight > 0) {
+            etCurrentWeight.setText(String.valueOf(currentWeight));
+        }
+
+        if (goalWeight > 0) {
+            etGoalWeight.setText(String.valueOf(goalWeight));
         }
+
+        updateWeightCalculations();
+
+        Log.d(TAG, "Loaded weights - Starting: " + startingWeight + ", Current: " + currentWeight + ", Goal: " + goalWeight);
     }
 
     private void setupWeightCalculation() {
@@ -276,30 +297,55 @@ public class EditWeightDialog extends Dialog {
                 return;
             }
 
-            // Save to database
-            boolean startingUpdated = true;
-            if (startingWeight > 0) {
-                startingUpdated = databaseHelper.updateStartingWeight(username, startingWeight);
+            if (loadedProfile == null) {
+                showToast("Error loading current weights");
+                return;
             }
 
-            boolean currentUpdated = databaseHelper.updateCurrentWeight(username, currentWeight);
-            boolean goalUpdated = databaseHelper.updateGoalWeight(username, goalWeight);
-
-            if (startingUpdated && currentUpdated && goalUpdated) {
-                showToast("Weights updated successfully!");
-
-                // Notify listener
-                if (listener != null) {
-                    listener.onWeightUpdated();
-                }
+            // Only fields that actually changed are written
+            ProfileUpdate.Builder builder = new ProfileUpdate.Builder();
+            if (startingWeight > 0 && startingWeight != loadedProfile.getStartingWeight()) {
+                builder.startingWeight(startingWeight);
+            }
+            if (currentWeight != loadedProfile.getCurrentWeight()) {
+                builder.currentWeight(currentWeight);
+            }
+            if (goalWeight != loadedProfile.getGoalWeight()) {
+                builder.goalWeight(goalWeight);
+            }
+            ProfileUpdate update = builder.build();
 
+            if (update.isEmpty()) {
                 dismiss();
-                Log.d(TAG, "Weights saved successfully");
-            } else {
-                showToast("Failed to update weights. Please try again.");
-                Log.e(TAG, "Failed to update weights in database");
+                return;
             }
 
+            // All changed fields in one transaction, off the UI thread
+            btnSave.setEnabled(false);
+            databaseHelper.updateUserProfileAsync(loadedProfile.getUserId(), update).thenAccept(saved -> {
+                btnSave.setEnabled(true);
+
+                if (saved) {
+                    showToast("Weights updated successfully!");
+
+                    // Notify listener
+                    if (listener != null) {
+                        listener.onProfileUpdated(update);
+                    }
+
+                    dismiss();
+                    Log.d(TAG, "Weights saved successfully");
+                } else {
+                    showToast("Failed to update weights. Please try again.");
+                    Log.e(TAG, "Failed to update weights in database");
+                }
+            }).exceptionally(e -> {
+                btnSave.setEnabled(true);
+                showToast("Error saving weights: " + e.getMessage());
+                Log.e(TAG, "Error saving weights: ", e);
+                return null;
+            });
+
         } catch (NumberFormatException e) {
             showToast("Please enter valid weight values");
             Log.e(TAG, "Number format error: ", e);
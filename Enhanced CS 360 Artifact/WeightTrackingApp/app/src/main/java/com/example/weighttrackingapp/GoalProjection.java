@@ -0,0 +1,116 @@
+package com.example.weighttrackingapp;
+
+/**
+ * Least-squares weight line over the recent regression window, used to
+ * project when the goal weight will be reached.
+ *
+ * Built from the sums kept on UserRealm by WeightRegression, so creating
+ * one costs O(1) regardless of history size.
+ */
+public final class GoalProjection {
+
+    static final int MIN_ENTRIES = 3;
+    static final int MAX_PROJECTION_DAYS = 730;
+
+    private static final double MILLIS_PER_DAY = 24.0 * 60 * 60 * 1000;
+    // Entries must spread over more than a day or two for the slope to mean anything
+    private static final double MIN_VARIANCE_DAYS = 0.5;
+
+    private final long originMillis;
+    private final long anchorMillis;
+    private final double slopePerDay;
+    private final double intercept;
+    private final int entryCount;
+
+    private GoalProjection(long originMillis, long anchorMillis, double slopePerDay, double intercept, int entryCount) {
+        this.originMillis = originMillis;
+        this.anchorMillis = anchorMillis;
+        this.slopePerDay = slopePerDay;
+        this.intercept = intercept;
+        this.entryCount = entryCount;
+    }
+
+    /**
+     * Fit from the regression sums (x in days since originMillis); null when
+     * there are too few entries or they are too close together
+     */
+    static GoalProjection fromSums(int n, double sumX, double sumY, double sumXY, double sumXX,
+                                   long originMillis, long anchorMillis) {
+        if (n < MIN_ENTRIES) {
+            return null;
+        }
+
+        double denominator = n * sumXX - sumX * sumX;
+        if (denominator <= (double) n * n * MIN_VARIANCE_DAYS) {
+            return null;
+        }
+
+        double slope = (n * sumXY - sumX * sumY) / denominator;
+        double intercept = (sumY - slope * sumX) / n;
+        return new GoalProjection(originMillis, anchorMillis, slope, intercept, n);
+    }
+
+    /**
+     * Re-express the sums with x measured from an origin shiftDays later, so
+     * x' = x - shiftDays. Returns {sumX, sumY, sumXY, sumXX}; sumY is unchanged.
+     */
+    static double[] shiftOrigin(int n, double sumX, double sumY, double sumXY, double sumXX, double shiftDays) {
+        return new double[]{
+                sumX - n * shiftDays,
+                sumY,
+                sumXY - shiftDays * sumY,
+                sumXX - 2 * shiftDays * sumX + n * shiftDays * shiftDays
+        };
+    }
+
+    /**
+     * Fitted rate of change in kg per day (negative when losing weight)
+     */
+    public double getSlopePerDay() {
+        return slopePerDay;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Fitted weight at the given time
+     */
+    public double getFittedWeight(long timestampMillis) {
+        return intercept + slopePerDay * ((timestampMillis - originMillis) / MILLIS_PER_DAY);
+    }
+
+    /**
+     * When the fitted line reaches goalWeight, measured forward from the newest
+     * entry; -1 when the trend is flat, heading away from the goal, or the date
+     * is more than MAX_PROJECTION_DAYS out
+     */
+    public long getGoalDateMillis(double goalWeight) {
+        if (goalWeight <= 0) {
+            return -1;
+        }
+
+        double remaining = goalWeight - getFittedWeight(anchorMillis);
+        if (remaining == 0) {
+            return anchorMillis;
+        }
+        if (slopePerDay == 0 || Math.signum(remaining) != Math.signum(slopePerDay)) {
+            return -1;
+        }
+
+        double days = remaining / slopePerDay;
+        if (days > MAX_PROJECTION_DAYS) {
+            return -1;
+        }
+        return anchorMillis + (long) (days * MILLIS_PER_DAY);
+    }
+
+    @Override
+    public String toString() {
+        return "GoalProjection{" +
+                "slopePerDay=" + slopePerDay +
+                ", entryCount=" + entryCount +
+                '}';
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.weighttrackingapp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background write queue that commits operations arriving close together
+ * as one batch.
+ *
+ * The first queued operation opens a short coalescing window; everything
+ * submitted before it closes (up to maxBatchSize) is handed to the
+ * committer together, so a burst of edits pays for one transaction. Each
+ * operation still gets its own future, completed on callbackExecutor. If a
+ * batch fails as a whole, its operations are retried one at a time so a
+ * single bad write cannot fail its neighbours. Anything else that goes wrong
+ * while handling a batch fails that batch's futures; the worker thread is
+ * restarted by the next submit if it ever exits.
+ */
+final class GroupCommitQueue<T> {
+
+    /**
+     * Commits a batch in a single transaction and reports each operation's outcome
+     */
+    interface BatchCommitter<T> {
+        boolean[] commit(List<T> batch) throws Exception;
+    }
+
+    private static final class Pending<T> {
+        final T operation;
+        final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        Pending(T operation) {
+            this.operation = operation;
+        }
+    }
+
+    private final BlockingQueue<Pending<T>> queue = new LinkedBlockingQueue<>();
+    private final String name;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final BatchCommitter<T> committer;
+    private final Executor callbackExecutor;
+
+    private Thread worker;
+    private long batchCount;
+    private long operationCount;
+    private int largestBatch;
+
+    GroupCommitQueue(String name, long windowMillis, int maxBatchSize,
+                     BatchCommitter<T> committer, Executor callbackExecutor) {
+        this.name = name;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.committer = committer;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Queue an operation; the future completes with its result once its batch commits
+     */
+    CompletableFuture<Boolean> submit(T operation) {
+        Pending<T> pending = new Pending<>(operation);
+        queue.add(pending);
+        ensureWorker();
+        return pending.future;
+    }
+
+    /**
+     * Batch size figures since the queue was created
+     */
+    synchronized Metrics getMetrics() {
+        return new Metrics(batchCount, operationCount, largestBatch);
+    }
+
+    private synchronized void ensureWorker() {
+        if (worker == null) {
+            worker = new Thread(this::drain, name);
+            worker.setDaemon(true);
+            worker.setPriority(Thread.NORM_PRIORITY - 1);
+            worker.start();
+        }
+    }
+
+    private synchronized void onWorkerExit() {
+        worker = null;
+        // Anything submitted while the worker was exiting would otherwise wait for the next submit
+        if (!queue.isEmpty()) {
+            ensureWorker();
+        }
+    }
+
+    private void drain() {
+        try {
+            drainBatches();
+        } finally {
+            onWorkerExit();
+        }
+    }
+
+    private void drainBatches() {
+        List<Pending<T>> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+
+                // Collect whatever else arrives inside the window
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMillis);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending<T> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable t) {
+                // Futures already completed ignore this
+                for (Pending<T> pending : batch) {
+                    fail(pending, t);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending<T>> batch) {
+        List<T> operations = new ArrayList<>(batch.size());
+        for (Pending<T> pending : batch) {
+            operations.add(pending.operation);
+        }
+
+        boolean[] results = null;
+        boolean committed = false;
+        try {
+            results = committer.commit(operations);
+            committed = true;
+        } catch (Throwable t) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), t);
+                return;
+            }
+            // Fall through and retry one by one
+        }
+
+        // Completing stays outside the try so a committed batch is never retried
+        if (committed) {
+            recordBatch(batch.size());
+            complete(batch, results);
+            return;
+        }
+
+        for (Pending<T> pending : batch) {
+            try {
+                results = committer.commit(Collections.singletonList(pending.operation));
+            } catch (Throwable t) {
+                fail(pending, t);
+                continue;
+            }
+            recordBatch(1);
+            complete(Collections.singletonList(pending), results);
+        }
+    }
+
+    private void fail(Pending<T> pending, Throwable e) {
+        callbackExecutor.execute(() -> pending.future.completeExceptionally(e));
+    }
+
+    private void complete(List<Pending<T>> batch, boolean[] results) {
+        if (results == null || results.length != batch.size()) {
+            throw new IllegalStateException("Committer returned "
+                    + (results == null ? "no" : String.valueOf(results.length)) + " results for " + batch.size() + " operations");
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            CompletableFuture<Boolean> future = batch.get(i).future;
+            boolean result = results[i];
+            callbackExecutor.execute(() -> future.complete(result));
+        }
+    }
+
+    private synchronized void recordBatch(int size) {
+        batchCount++;
+        operationCount += size;
+        largestBatch = Math.max(largestBatch, size);
+    }
+
+    /**
+     * Snapshot of how well writes are being coalesced
+     */
+    static final class Metrics {
+
+        private final long batchCount;
+        private final long operationCount;
+        private final int largestBatch;
+
+        Metrics(long batchCount, long operationCount, int largestBatch) {
+            this.batchCount = batchCount;
+            this.operationCount = operationCount;
+            this.largestBatch = largestBatch;
+        }
+
+        // Transactions committed
+        long getBatchCount() {
+            return batchCount;
+        }
+
+        // Operations committed across all batches
+        long getOperationCount() {
+            return operationCount;
+        }
+
+        int getLargestBatch() {
+            return largestBatch;
+        }
+
+        double getAverageBatchSize() {
+            return batchCount == 0 ? 0.0 : (double) operationCount / batchCount;
+        }
+    }
+}
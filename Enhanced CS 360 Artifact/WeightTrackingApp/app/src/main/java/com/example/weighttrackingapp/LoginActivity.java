@@ -1,5 +1,6 @@
 package com.example.weighttrackingapp;
 
+import android.app.Activity;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.os.Bundle;
@@ -32,6 +33,7 @@ public class LoginActivity extends AppCompatActivity {
     private static final String PREFS_NAME = "WeightTrackerPrefs";
     private static final String KEY_IS_LOGGED_IN = "isLoggedIn";
     private static final String KEY_USERNAME = "username";
+    private static final String KEY_USER_ID = "user_id";
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -43,6 +45,25 @@ public class LoginActivity extends AppCompatActivity {
         // Initialize SharedPreferences
         sharedPreferences = getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
 
+        // Initialize UI components
+        initializeViews();
+
+        // Set up click listeners
+        setupClickListeners();
+
+        // Nothing touches Realm until the launch open (migration, compaction) has finished
+        // on its background thread; otherwise open() would run or wait for it here
+        showLoading(true);
+        RealmCompaction.whenReady().thenRunAsync(this::onRealmReady, DatabaseExecutor.mainThread());
+
+        Log.d(TAG, "LoginActivity onCreate completed");
+    }
+
+    private void onRealmReady() {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+
         // Check if user is already logged in
         if (isUserLoggedIn()) {
             navigateToMainActivity();
@@ -51,14 +72,26 @@ public class LoginActivity extends AppCompatActivity {
 
         // Initialize database helper
         databaseHelper = new DatabaseHelper(this);
+        databaseHelper.open(); // One Realm handle for this activity's lifetime
+        showLoading(false);
+    }
 
-        // Initialize UI components
-        initializeViews();
-
-        // Set up click listeners
-        setupClickListeners();
+    /**
+     * For activities other than the launcher: false if Realm's launch open has not
+     * finished yet (the process was restored straight into this activity), in which
+     * case the task is restarted at LoginActivity, which waits for it
+     */
+    static boolean ensureRealmReady(Activity activity) {
+        if (RealmCompaction.isReady()) {
+            return true;
+        }
 
-        Log.d(TAG, "LoginActivity onCreate completed");
+        Log.d(TAG, "Realm not ready, restarting at login from " + activity.getClass().getSimpleName());
+        Intent intent = new Intent(activity, LoginActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        activity.startActivity(intent);
+        activity.finish();
+        return false;
     }
 
     private void initializeViews() {
@@ -99,20 +132,29 @@ public class LoginActivity extends AppCompatActivity {
         // Show loading
         showLoading(true);
 
-        // Check if user exists and password is correct
-        if (databaseHelper.validateUser(username, password)) {
-            // Login successful
-            saveLoginState(username);
-            showToast("Login successful!");
-            Log.d(TAG, "Login successful for user: " + username);
-            navigateToMainActivity();
-        } else {
-            // Login failed
-            showLoading(false);
-            showToast("Invalid username or password");
-            tilPassword.setError("Please check your credentials");
-            Log.d(TAG, "Login failed for user: " + username);
-        }
+        // Check if user exists and password is correct (BCrypt runs off the UI thread)
+        databaseHelper.authenticateUserAsync(username, password).thenAccept(userId -> {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+
+            if (userId != -1) {
+                // Login successful
+                saveLoginState(username, userId);
+                showToast("Login successful!");
+                Log.d(TAG, "Login successful for user: " + username);
+                navigateToMainActivity();
+            } else {
+                // Login failed
+                showLoading(false);
+                showToast("Invalid username or password");
+                tilPassword.setError("Please check your credentials");
+                Log.d(TAG, "Login failed for user: " + username);
+            }
+        }).exceptionally(e -> {
+            onRequestFailed("Login failed. Please try again.", "Error logging in: ", e);
+            return null;
+        });
     }
 
     private void handleCreateAccount() {
@@ -132,28 +174,56 @@ public class LoginActivity extends AppCompatActivity {
         showLoading(true);
 
         // Check if username already exists
-        if (databaseHelper.userExists(username)) {
-            // Username already exists
-            showLoading(false);
-            showToast("Username already exists");
-            tilUsername.setError("This username is already taken");
-            Log.d(TAG, "Account creation failed - username exists: " + username);
-        } else {
-            // Create new user
-            long userId = databaseHelper.createUser(username, password);
-            if (userId != -1) {
-                // Account created successfully
-                saveLoginState(username);
-                showToast("Account created successfully!");
-                Log.d(TAG, "Account created successfully for user: " + username);
-                navigateToMainActivity();
-            } else {
-                // Account creation failed
+        databaseHelper.userExistsAsync(username).thenAccept(exists -> {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+
+            if (exists) {
+                // Username already exists
                 showLoading(false);
-                showToast("Failed to create account. Please try again.");
-                Log.e(TAG, "Failed to create account for user: " + username);
+                showToast("Username already exists");
+                tilUsername.setError("This username is already taken");
+                Log.d(TAG, "Account creation failed - username exists: " + username);
+                return;
             }
+
+            // Create new user (BCrypt runs off the UI thread)
+            databaseHelper.createUserAsync(username, password).thenAccept(userId -> {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
+
+                if (userId != -1) {
+                    // Account created successfully
+                    saveLoginState(username, userId.intValue());
+                    showToast("Account created successfully!");
+                    Log.d(TAG, "Account created successfully for user: " + username);
+                    navigateToMainActivity();
+                } else {
+                    // Account creation failed
+                    showLoading(false);
+                    showToast("Failed to create account. Please try again.");
+                    Log.e(TAG, "Failed to create account for user: " + username);
+                }
+            }).exceptionally(e -> {
+                onRequestFailed("Failed to create account. Please try again.", "Error creating account: ", e);
+                return null;
+            });
+        }).exceptionally(e -> {
+            onRequestFailed("Failed to create account. Please try again.", "Error checking username: ", e);
+            return null;
+        });
+    }
+
+    // A database call failed outright: give the form back instead of leaving it spinning
+    private void onRequestFailed(String message, String logMessage, Throwable e) {
+        Log.e(TAG, logMessage, e);
+        if (isFinishing() || isDestroyed()) {
+            return;
         }
+        showLoading(false);
+        showToast(message);
     }
 
     private boolean validateInputs(String username, String password) {
@@ -191,10 +261,11 @@ public class LoginActivity extends AppCompatActivity {
         btnCreateAccount.setEnabled(!show);
     }
 
-    private void saveLoginState(String username) {
+    private void saveLoginState(String username, int userId) {
         SharedPreferences.Editor editor = sharedPreferences.edit();
         editor.putBoolean(KEY_IS_LOGGED_IN, true);
         editor.putString(KEY_USERNAME, username);
+        editor.putInt(KEY_USER_ID, userId); // Resolved once per session for id-based lookups
         editor.apply();
         Log.d(TAG, "Login state saved for user: " + username);
     }
@@ -212,10 +283,22 @@ public class LoginActivity extends AppCompatActivity {
         return prefs.getString(KEY_USERNAME, "");
     }
 
+    /**
+     * Session user id, or -1 for sessions saved before ids were stored
+     */
+    public static int getLoggedInUserId(SharedPreferences prefs) {
+        return prefs.getInt(KEY_USER_ID, -1);
+    }
+
+    public static void saveLoggedInUserId(SharedPreferences prefs, int userId) {
+        prefs.edit().putInt(KEY_USER_ID, userId).apply();
+    }
+
     public static void logout(SharedPreferences prefs) {
         SharedPreferences.Editor editor = prefs.edit();
         editor.putBoolean(KEY_IS_LOGGED_IN, false);
         editor.remove(KEY_USERNAME);
+        editor.remove(KEY_USER_ID);
         editor.apply();
     }
 
@@ -239,6 +322,9 @@ public class LoginActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        // Realm handles connection lifecycle automatically - no close needed
+        // Release the Realm handle pinned in onCreate
+        if (databaseHelper != null) {
+            databaseHelper.close();
+        }
     }
 }
\ No newline at end of file
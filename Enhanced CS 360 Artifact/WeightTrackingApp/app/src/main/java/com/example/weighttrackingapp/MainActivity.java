@@ -32,7 +32,7 @@ public class MainActivity extends AppCompatActivity {
     // UI Components
     private ImageButton btnProfile, btnNotifications;
     private ImageButton btnEditGoal;
-    private TextView tvCurrentWeightDisplay, tvStartingWeight, tvCurrentWeight, tvRemainingWeight, tvProgressPercentage;
+    private TextView tvCurrentWeightDisplay, tvStartingWeight, tvCurrentWeight, tvTrendWeight, tvRemainingWeight, tvProgressPercentage, tvGoalProjection;
     private ProgressBar circularProgressBar, progressBarHorizontal;
     private TextView tvViewAll;
     private RecyclerView recyclerViewEntries;
@@ -42,15 +42,24 @@ public class MainActivity extends AppCompatActivity {
     private DatabaseHelper databaseHelper;
     private SharedPreferences sharedPreferences;
     private String currentUsername;
+    private int currentUserId = -1; // Resolved at login; all database calls go by id
     private DailyEntryAdapter entryAdapter;
-    private List<WeightEntry> weightEntries;
 
     // Notification Helper
     private NotificationHelper notificationHelper;
 
+    // Live queries; the dashboard refreshes only when the user's data changes
+    private RealmSubscription profileSubscription, recentEntriesSubscription;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+
+        // Restored after process death before Realm finished opening: start over at the launcher
+        if (!LoginActivity.ensureRealmReady(this)) {
+            return;
+        }
+
         setContentView(R.layout.activity_main);
 
         Log.d(TAG, "MainActivity onCreate started");
@@ -77,8 +86,8 @@ public class MainActivity extends AppCompatActivity {
             // Set up RecyclerView
             setupRecyclerView();
 
-            // Load and display data
-            loadDashboardData();
+            // Load and display data, then keep it in sync with the database
+            observeDashboardData();
 
             // Check for push notification permission
             checkPushNotificationPermission();
@@ -94,8 +103,10 @@ public class MainActivity extends AppCompatActivity {
     private void initializeData() {
         try {
             databaseHelper = new DatabaseHelper(this);
+            databaseHelper.open(); // One Realm handle for this activity's lifetime
             sharedPreferences = getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
             currentUsername = sharedPreferences.getString("username", "");
+            currentUserId = LoginActivity.getLoggedInUserId(sharedPreferences);
 
             Log.d(TAG, "Current username: " + currentUsername);
         } catch (Exception e) {
@@ -123,8 +134,10 @@ public class MainActivity extends AppCompatActivity {
             tvCurrentWeightDisplay = findViewById(R.id.tvGoalWeightDisplay);
             tvStartingWeight = findViewById(R.id.tvStartingWeight);
             tvCurrentWeight = findViewById(R.id.tvCurrentWeight);
+            tvTrendWeight = findViewById(R.id.tvTrendWeight);
             tvRemainingWeight = findViewById(R.id.tvRemainingWeight);
             tvProgressPercentage = findViewById(R.id.tvProgressPercentage);
+            tvGoalProjection = findViewById(R.id.tvGoalProjection);
             circularProgressBar = findViewById(R.id.circularProgressBar);
             progressBarHorizontal = findViewById(R.id.progressBarHorizontal);
 
@@ -184,22 +197,21 @@ public class MainActivity extends AppCompatActivity {
 
     private void setupRecyclerView() {
         try {
-            weightEntries = new ArrayList<>();
-            entryAdapter = new DailyEntryAdapter(this, weightEntries);
+            entryAdapter = new DailyEntryAdapter(this, new ArrayList<>());
 
             // Set edit click listener
             entryAdapter.setOnEditClickListener(position -> {
-                if (position >= 0 && position < weightEntries.size()) {
-                    WeightEntry entry = weightEntries.get(position);
+                WeightEntry entry = entryAdapter.getEntry(position);
+                if (entry != null) {
                     showEditEntryDialog(entry);
                 }
             });
 
             // Set delete click listener
             entryAdapter.setOnDeleteClickListener(position -> {
-                if (position >= 0 && position < weightEntries.size()) {
-                    WeightEntry entry = weightEntries.get(position);
-                    deleteWeightEntry(entry, position);
+                WeightEntry entry = entryAdapter.getEntry(position);
+                if (entry != null) {
+                    deleteWeightEntry(entry);
                 }
             });
 
@@ -213,14 +225,59 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    private void observeDashboardData() {
+        if (currentUserId == -1) {
+            // Session saved before ids were stored: resolve once and remember it
+            databaseHelper.getUserIdAsync(currentUsername).thenAccept(userId -> {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
+                if (userId == -1) {
+                    Log.e(TAG, "No user found for session: " + currentUsername);
+                    setDefaultValues();
+                    return;
+                }
+                currentUserId = userId;
+                LoginActivity.saveLoggedInUserId(sharedPreferences, userId);
+                observeDashboardData();
+            });
+            return;
+        }
+
+        profileSubscription = databaseHelper.observeUserProfile(currentUserId, this::displayDashboardData);
+        recentEntriesSubscription = databaseHelper.observeRecentEntries(currentUserId, 5, this::displayRecentEntries);
+    }
+
     private void loadDashboardData() {
+        Log.d(TAG, "Loading dashboard data for user: " + currentUsername);
+
+        // Get user's weight data in a single lookup, off the UI thread
+        databaseHelper.getUserProfileSnapshotAsync(currentUserId)
+                .thenAccept(this::displayDashboardData)
+                .exceptionally(e -> {
+                    Log.e(TAG, "Error loading dashboard data: ", e);
+                    setDefaultValues();
+                    return null;
+                });
+
+        // Load recent weight entries
+        loadRecentEntries();
+    }
+
+    private void displayDashboardData(UserProfileSnapshot profile) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+
         try {
-            Log.d(TAG, "Loading dashboard data for user: " + currentUsername);
+            if (profile == null) {
+                setDefaultValues();
+                return;
+            }
 
-            // Get user's weight data
-            double startingWeight = databaseHelper.getStartingWeight(currentUsername);
-            double currentWeight = databaseHelper.getCurrentWeight(currentUsername);
-            double goalWeight = databaseHelper.getGoalWeight(currentUsername);
+            double startingWeight = profile.getStartingWeight();
+            double currentWeight = profile.getCurrentWeight();
+            double goalWeight = profile.getGoalWeight();
 
             Log.d(TAG, "Starting weight: " + startingWeight + ", Current weight: " + currentWeight + ", Goal weight: " + goalWeight);
 
@@ -245,14 +302,20 @@ public class MainActivity extends AppCompatActivity {
                 tvCurrentWeight.setText("0.0 kg");
             }
 
+            // Smoothed trend evens out day-to-day water weight swings
+            double trendWeight = profile.getTrendWeight();
+            if (trendWeight > 0) {
+                tvTrendWeight.setText(String.format("(trend %.1f)", trendWeight));
+            } else {
+                tvTrendWeight.setText("");
+            }
+
             // Calculate remaining weight and progress
             updateProgressDisplays(startingWeight, currentWeight, goalWeight);
-
-            // Load recent weight entries
-            loadRecentEntries();
+            updateGoalProjection(profile);
 
             // Check for goal achievements and milestones
-            checkGoalAchievementsAndMilestones(startingWeight, currentWeight, goalWeight);
+            checkGoalAchievementsAndMilestones(profile);
 
             Log.d(TAG, "Dashboard data loaded successfully");
         } catch (Exception e) {
@@ -269,10 +332,12 @@ public class MainActivity extends AppCompatActivity {
             tvCurrentWeightDisplay.setText("0.0");
             tvStartingWeight.setText("-- kg");
             tvCurrentWeight.setText("0.0 kg");
+            tvTrendWeight.setText("");
             tvRemainingWeight.setText("Set your weights");
             tvProgressPercentage.setText("0% complete");
             circularProgressBar.setProgress(0);
             progressBarHorizontal.setProgress(0);
+            tvGoalProjection.setVisibility(View.GONE);
         } catch (Exception e) {
             Log.e(TAG, "Error setting default values: ", e);
         }
@@ -329,30 +394,61 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
-    private void loadRecentEntries() {
+    private void updateGoalProjection(UserProfileSnapshot profile) {
         try {
-            // Get recent weight entries from database
-            List<WeightEntry> entries = databaseHelper.getRecentWeightEntries(currentUsername, 5);
+            double goalWeight = profile.getGoalWeight();
+            double currentWeight = profile.getCurrentWeight();
 
-            Log.d(TAG, "Loaded " + entries.size() + " recent entries");
-
-            weightEntries.clear();
-            weightEntries.addAll(entries);
+            if (goalWeight <= 0 || currentWeight <= 0 || currentWeight <= goalWeight) {
+                tvGoalProjection.setVisibility(View.GONE);
+                return;
+            }
 
-            if (entryAdapter != null) {
-                entryAdapter.notifyDataSetChanged();
+            // Fitted over the last few weeks of entries, see WeightRegression
+            long projectedDate = profile.getProjectedGoalDateMillis();
+            if (projectedDate > 0) {
+                SimpleDateFormat dateFormat = new SimpleDateFormat("MMM d, yyyy", Locale.getDefault());
+                tvGoalProjection.setText("On pace for " + dateFormat.format(new Date(projectedDate)));
+            } else if (profile.getGoalProjection() == null) {
+                tvGoalProjection.setText("Log a few more weigh-ins to see your goal date");
+            } else {
+                tvGoalProjection.setText("Not trending toward your goal yet");
             }
+            tvGoalProjection.setVisibility(View.VISIBLE);
         } catch (Exception e) {
-            Log.e(TAG, "Error loading recent entries: ", e);
-            // Add some sample data for testing
-            addSampleData();
+            Log.e(TAG, "Error updating goal projection: ", e);
+        }
+    }
+
+    private void loadRecentEntries() {
+        // Get recent weight entries from database
+        databaseHelper.getRecentWeightEntriesAsync(currentUserId, 5)
+                .thenAccept(this::displayRecentEntries)
+                .exceptionally(e -> {
+                    Log.e(TAG, "Error loading recent entries: ", e);
+                    // Add some sample data for testing
+                    addSampleData();
+                    return null;
+                });
+    }
+
+    private void displayRecentEntries(List<WeightEntry> entries) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+
+        Log.d(TAG, "Loaded " + entries.size() + " recent entries");
+
+        // Only rows that changed are rebound
+        if (entryAdapter != null) {
+            entryAdapter.updateEntries(entries);
         }
     }
 
     private void addSampleData() {
         try {
             // Add sample weight entries for testing
-            weightEntries.clear();
+            List<WeightEntry> sampleEntries = new ArrayList<>();
 
             SimpleDateFormat dateFormat = new SimpleDateFormat("MMMM d", Locale.getDefault());
             SimpleDateFormat timeFormat = new SimpleDateFormat("h:mm a", Locale.getDefault());
@@ -360,12 +456,12 @@ public class MainActivity extends AppCompatActivity {
             String currentTime = timeFormat.format(new Date());
 
             // Sample entries
-            weightEntries.add(new WeightEntry(1, 1, 75.2, "Today, " + currentDate, currentTime, ""));
-            weightEntries.add(new WeightEntry(2, 1, 75.5, "Yesterday", "9:30 AM", ""));
-            weightEntries.add(new WeightEntry(3, 1, 75.8, "2 days ago", "9:45 AM", ""));
+            sampleEntries.add(new WeightEntry(1, 1, 75.2, "Today, " + currentDate, currentTime, ""));
+            sampleEntries.add(new WeightEntry(2, 1, 75.5, "Yesterday", "9:30 AM", ""));
+            sampleEntries.add(new WeightEntry(3, 1, 75.8, "2 days ago", "9:45 AM", ""));
 
             if (entryAdapter != null) {
-                entryAdapter.notifyDataSetChanged();
+                entryAdapter.updateEntries(sampleEntries);
             }
 
             Log.d(TAG, "Sample data added");
@@ -429,42 +525,48 @@ public class MainActivity extends AppCompatActivity {
     }
 
     //Check for goal achievements and milestones
-    private void checkGoalAchievementsAndMilestones(double startingWeight, double currentWeight, double goalWeight) {
+    private void checkGoalAchievementsAndMilestones(UserProfileSnapshot profile) {
         try {
             if (notificationHelper != null) {
                 // Check for goal achievement
-                notificationHelper.checkAndNotifyGoalAchievement(currentUsername, databaseHelper);
+                notificationHelper.checkAndNotifyGoalAchievement(profile);
 
                 // Check for milestone achievements
-                notificationHelper.checkAndNotifyMilestone(currentUsername, databaseHelper);
+                notificationHelper.checkAndNotifyMilestone(profile);
+
+                // Announce the projected goal date when it first appears or improves
+                notificationHelper.checkAndNotifyGoalProjection(profile);
             }
         } catch (Exception e) {
             Log.e(TAG, "Error checking achievements and milestones: ", e);
         }
     }
 
-    private void deleteWeightEntry(WeightEntry entry, int position) {
+    private void deleteWeightEntry(WeightEntry entry) {
         try {
             new AlertDialog.Builder(this)
                     .setTitle("Delete Entry")
                     .setMessage("Are you sure you want to delete this weight entry?")
                     .setPositiveButton("Delete", (dialog, which) -> {
-                        try {
-                            boolean deleted = databaseHelper.deleteWeightEntry(entry.getId());
-                            if (deleted) {
-                                weightEntries.remove(position);
-                                entryAdapter.notifyItemRemoved(position);
-                                showToast("Entry deleted");
-
-                                // Update current weight if needed
-                                updateCurrentWeightIfNeeded();
-                            } else {
-                                showToast("Failed to delete entry");
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error deleting entry: ", e);
-                            showToast("Error deleting entry");
-                        }
+                        databaseHelper.queueWeightEntryDelete(entry.getId())
+                                .thenAccept(deleted -> {
+                                    if (isFinishing() || isDestroyed()) {
+                                        return;
+                                    }
+
+                                    if (deleted) {
+                                        // Current weight was refreshed in the delete's transaction;
+                                        // the profile subscription redraws the dashboard
+                                        showToast("Entry deleted");
+                                    } else {
+                                        showToast("Failed to delete entry");
+                                    }
+                                })
+                                .exceptionally(e -> {
+                                    Log.e(TAG, "Error deleting entry: ", e);
+                                    showToast("Error deleting entry");
+                                    return null;
+                                });
                     })
                     .setNegativeButton("Cancel", null)
                     .show();
@@ -473,16 +575,6 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
-    private void updateCurrentWeightIfNeeded() {
-        try {
-            // Update current weight with the most recent entry by actual date/time
-            databaseHelper.updateCurrentWeightFromMostRecent(currentUsername);
-            loadDashboardData();
-        } catch (Exception e) {
-            Log.e(TAG, "Error updating current weight: ", e);
-        }
-    }
-
     private void showProfilePopup() {
         try {
             View popupView = LayoutInflater.from(this).inflate(R.layout.popup_profile_menu, null);
@@ -620,8 +712,8 @@ public class MainActivity extends AppCompatActivity {
         try {
             EditWeightDialog dialog = new EditWeightDialog(this, currentUsername, databaseHelper);
             dialog.setOnWeightUpdatedListener(() -> {
-                // Refresh dashboard when weights are updated
-                loadDashboardData();
+                // Dashboard refreshes through the profile subscription
+                Log.d(TAG, "Weights updated");
             });
             dialog.show();
         } catch (Exception e) {
@@ -634,8 +726,8 @@ public class MainActivity extends AppCompatActivity {
         try {
             EditEntryDialog dialog = new EditEntryDialog(this, entry, currentUsername, databaseHelper);
             dialog.setOnEntryUpdatedListener(() -> {
-                // Refresh dashboard when entry is updated
-                loadDashboardData();
+                // Dashboard refreshes through the profile and recent-entry subscriptions
+                Log.d(TAG, "Entry updated");
             });
             dialog.show();
         } catch (Exception e) {
@@ -649,8 +741,8 @@ public class MainActivity extends AppCompatActivity {
         try {
             AddWeightDialog dialog = new AddWeightDialog(this, currentUsername, databaseHelper);
             dialog.setOnEntryAddedListener(() -> {
-                // Refresh dashboard when new entry is added
-                loadDashboardData();
+                // Dashboard refreshes through the profile and recent-entry subscriptions
+                Log.d(TAG, "Entry added");
             });
             dialog.show();
         } catch (Exception e) {
@@ -669,6 +761,7 @@ public class MainActivity extends AppCompatActivity {
                         SharedPreferences.Editor editor = sharedPreferences.edit();
                         editor.putBoolean("isLoggedIn", false);
                         editor.remove("username");
+                        editor.remove("user_id");
                         editor.apply();
 
                         // Redirect to login
@@ -700,20 +793,18 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
-    @Override
-    protected void onResume() {
-        super.onResume();
-        try {
-            Log.d(TAG, "onResume called");
-            loadDashboardData();
-        } catch (Exception e) {
-            Log.e(TAG, "Error in onResume: ", e);
-        }
-    }
-
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        // Realm handles connection lifecycle automatically - no close needed
+        // Stop live queries before releasing the Realm handle pinned in onCreate
+        if (profileSubscription != null) {
+            profileSubscription.cancel();
+        }
+        if (recentEntriesSubscription != null) {
+            recentEntriesSubscription.cancel();
+        }
+        if (databaseHelper != null) {
+            databaseHelper.close();
+        }
     }
 }
\ No newline at end of file
@@ -34,6 +34,10 @@ public class NotificationHelper {
     private static final int NOTIFICATION_ID_GOAL_ACHIEVED = 1003;
     private static final int NOTIFICATION_ID_MILESTONE = 1004;
     private static final int NOTIFICATION_ID_MOTIVATIONAL = 1005;
+    private static final int NOTIFICATION_ID_GOAL_PROJECTION = 1006;
+
+    // Only re-announce a projected goal date when it moves at least this much earlier
+    private static final long PROJECTION_NOTIFY_THRESHOLD_MILLIS = 7L * 24 * 60 * 60 * 1000;
 
     private Context context;
     private NotificationManagerCompat notificationManager;
@@ -352,6 +356,52 @@ public class NotificationHelper {
     }
 
 
+    /**
+     * Show projected goal date notification
+     */
+    public void showGoalProjectionNotification(double goalWeight, long projectedDateMillis) {
+        if (!areNotificationsEnabled()) {
+            Log.d(TAG, "Notifications disabled - skipping goal projection notification");
+            return;
+        }
+
+        try {
+            Intent intent = new Intent(context, MainActivity.class);
+            intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+
+            PendingIntent pendingIntent = PendingIntent.getActivity(
+                    context,
+                    0,
+                    intent,
+                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+            );
+
+            String projectedDate = new SimpleDateFormat("MMM d, yyyy", Locale.getDefault()).format(new Date(projectedDateMillis));
+            String title = "📈 On Pace for Your Goal";
+            String message = String.format("At your recent pace you'll reach %.1f kg around %s.", goalWeight, projectedDate);
+
+            NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_GOALS)
+                    .setSmallIcon(R.drawable.ic_target)
+                    .setContentTitle(title)
+                    .setContentText(message)
+                    .setStyle(new NotificationCompat.BigTextStyle()
+                            .bigText(message + " Keep logging your weight to keep the projection accurate!"))
+                    .setPriority(NotificationCompat.PRIORITY_DEFAULT)
+                    .setContentIntent(pendingIntent)
+                    .setAutoCancel(true)
+                    .setShowWhen(true);
+
+            notificationManager.notify(NOTIFICATION_ID_GOAL_PROJECTION, builder.build());
+
+            // Save to notification history
+            saveNotificationToHistory(title, message, "goal");
+
+            Log.d(TAG, "Goal projection notification sent for " + projectedDate);
+
+        } catch (Exception e) {
+            Log.e(TAG, "Error showing goal projection notification: ", e);
+        }
+    }
 
     /**
      * Cancel all notifications
@@ -381,9 +431,20 @@ public class NotificationHelper {
      * Check for goal achievement and send notification if appropriate
      */
     public void checkAndNotifyGoalAchievement(String username, DatabaseHelper databaseHelper) {
+        checkAndNotifyGoalAchievement(databaseHelper.getUserProfileSnapshot(username));
+    }
+
+    /**
+     * Check for goal achievement using an already loaded profile snapshot
+     */
+    public void checkAndNotifyGoalAchievement(UserProfileSnapshot profile) {
+        if (profile == null) {
+            return;
+        }
+
         try {
-            double currentWeight = databaseHelper.getCurrentWeight(username);
-            double goalWeight = databaseHelper.getGoalWeight(username);
+            double currentWeight = profile.getCurrentWeight();
+            double goalWeight = profile.getGoalWeight();
 
             if (currentWeight > 0 && goalWeight > 0 && currentWeight <= goalWeight) {
                 // Check if we've already notified for this goal achievement
@@ -413,9 +474,20 @@ public class NotificationHelper {
      * Check for milestones and send notification if appropriate
      */
     public void checkAndNotifyMilestone(String username, DatabaseHelper databaseHelper) {
+        checkAndNotifyMilestone(databaseHelper.getUserProfileSnapshot(username));
+    }
+
+    /**
+     * Check for milestones using an already loaded profile snapshot
+     */
+    public void checkAndNotifyMilestone(UserProfileSnapshot profile) {
+        if (profile == null) {
+            return;
+        }
+
         try {
-            double startingWeight = databaseHelper.getStartingWeight(username);
-            double currentWeight = databaseHelper.getCurrentWeight(username);
+            double startingWeight = profile.getStartingWeight();
+            double currentWeight = profile.getCurrentWeight();
 
             if (startingWeight > 0 && currentWeight > 0 && startingWeight > currentWeight) {
                 double weightLost = startingWeight - currentWeight;
@@ -444,4 +516,40 @@ public class NotificationHelper {
             Log.e(TAG, "Error checking milestone: ", e);
         }
     }
+
+    /**
+     * Announce the projected goal date the first time one is available, and
+     * again whenever it moves at least a week earlier
+     */
+    public void checkAndNotifyGoalProjection(UserProfileSnapshot profile) {
+        if (profile == null) {
+            return;
+        }
+
+        try {
+            double currentWeight = profile.getCurrentWeight();
+            double goalWeight = profile.getGoalWeight();
+            long projectedDate = profile.getProjectedGoalDateMillis();
+
+            if (goalWeight <= 0 || currentWeight <= goalWeight || projectedDate <= 0) {
+                return;
+            }
+
+            String projectionKey = "goal_projection_" + goalWeight + "_notified_millis";
+            long lastNotified = settingsPreferences.getLong(projectionKey, 0L);
+
+            if (lastNotified == 0L || projectedDate <= lastNotified - PROJECTION_NOTIFY_THRESHOLD_MILLIS) {
+                showGoalProjectionNotification(goalWeight, projectedDate);
+
+                // Remember the announced date so small shifts don't re-notify
+                SharedPreferences.Editor editor = settingsPreferences.edit();
+                editor.putLong(projectionKey, projectedDate);
+                editor.apply();
+
+                Log.d(TAG, "Goal projection notification sent for goal " + goalWeight + "kg");
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error checking goal projection: ", e);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.example.weighttrackingapp;
+
+/**
+ * Partial update of a user's profile weights, applied by
+ * DatabaseHelper.updateUserProfile in a single write transaction.
+ * Only the fields set on the Builder are written.
+ */
+public final class ProfileUpdate {
+
+    private final Double startingWeight;
+    private final Double currentWeight;
+    private final Double goalWeight;
+
+    private ProfileUpdate(Builder builder) {
+        this.startingWeight = builder.startingWeight;
+        this.currentWeight = builder.currentWeight;
+        this.goalWeight = builder.goalWeight;
+    }
+
+    // True when no field is set and there is nothing to write
+    public boolean isEmpty() {
+        return startingWeight == null && currentWeight == null && goalWeight == null;
+    }
+
+    public boolean hasStartingWeight() {
+        return startingWeight != null;
+    }
+
+    public double getStartingWeight() {
+        return startingWeight != null ? startingWeight : 0.0;
+    }
+
+    public boolean hasCurrentWeight() {
+        return currentWeight != null;
+    }
+
+    public double getCurrentWeight() {
+        return currentWeight != null ? currentWeight : 0.0;
+    }
+
+    public boolean hasGoalWeight() {
+        return goalWeight != null;
+    }
+
+    public double getGoalWeight() {
+        return goalWeight != null ? goalWeight : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "ProfileUpdate{" +
+                "startingWeight=" + startingWeight +
+                ", currentWeight=" + currentWeight +
+                ", goalWeight=" + goalWeight +
+                '}';
+    }
+
+    public static final class Builder {
+
+        private Double startingWeight;
+        private Double currentWeight;
+        private Double goalWeight;
+
+        public Builder startingWeight(double startingWeight) {
+            this.startingWeight = startingWeight;
+            return this;
+        }
+
+        public Builder currentWeight(double currentWeight) {
+            this.currentWeight = currentWeight;
+            return this;
+        }
+
+        public Builder goalWeight(double goalWeight) {
+            this.goalWeight = goalWeight;
+            return this;
+        }
+
+        public ProfileUpdate build() {
+            return new ProfileUpdate(this);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.weighttrackingapp;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.text.format.DateFormat;
+import android.util.Log;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+import io.realm.CompactOnLaunchCallback;
+import io.realm.Realm;
+import io.realm.RealmConfiguration;
+
+/**
+ * Compaction of the Realm file.
+ *
+ * Realm can only compact a file that no thread has open, so compaction runs
+ * through the configuration's compactOnLaunch policy. At each launch the
+ * policy compares file size with live data and compacts when the free share
+ * crosses the configured threshold, or when a large delete requested it.
+ * openInBackground() performs the first open (and so any migration and
+ * compaction) on a background thread. That only keeps the work off the UI
+ * thread if no activity opens Realm first, so activities wait for
+ * whenReady() before calling DatabaseHelper.open() (see
+ * LoginActivity.ensureRealmReady). The last check and the last compaction
+ * are kept in preferences for the debug report in describe().
+ */
+public final class RealmCompaction {
+
+    private static final String TAG = "RealmCompaction";
+    private static final String PREFS_NAME = "RealmMaintenance";
+
+    private static final String KEY_COMPACTION_REQUESTED = "compaction_requested";
+    private static final String KEY_REQUEST_REASON = "compaction_request_reason";
+    private static final String KEY_FREE_PERCENT_THRESHOLD = "free_percent_threshold";
+    private static final String KEY_CHECK_TOTAL_BYTES = "last_check_total_bytes";
+    private static final String KEY_CHECK_USED_BYTES = "last_check_used_bytes";
+    private static final String KEY_CHECK_AT = "last_check_at";
+    private static final String KEY_COMPACTION_BEFORE_BYTES = "last_compaction_before_bytes";
+    private static final String KEY_COMPACTION_AFTER_BYTES = "last_compaction_after_bytes";
+    private static final String KEY_COMPACTION_DURATION_MS = "last_compaction_duration_ms";
+    private static final String KEY_COMPACTION_AT = "last_compaction_at";
+    private static final String KEY_COMPACTION_REASON = "last_compaction_reason";
+
+    // Set by the policy when it decides to compact; read once the open returns
+    private static volatile long compactionStartNanos;
+    private static volatile long compactionBeforeBytes;
+    private static volatile String compactionReason;
+
+    // Completes once the launch open (migration and compaction included) has finished
+    private static final CompletableFuture<Void> READY = new CompletableFuture<>();
+
+    private RealmCompaction() {}
+
+    /**
+     * Ask for the file to be compacted on next launch
+     */
+    public static void requestCompaction(Context context, String reason) {
+        prefs(context).edit()
+                .putBoolean(KEY_COMPACTION_REQUESTED, true)
+                .putString(KEY_REQUEST_REASON, reason)
+                .apply();
+        Log.d(TAG, "Compaction requested: " + reason);
+    }
+
+    public static int getFreePercentThreshold(Context context) {
+        return prefs(context).getInt(KEY_FREE_PERCENT_THRESHOLD, CompactionPolicy.DEFAULT_FREE_PERCENT);
+    }
+
+    /**
+     * Compact at launch once at least this share (1-100) of the file is free
+     */
+    public static void setFreePercentThreshold(Context context, int percent) {
+        prefs(context).edit()
+                .putInt(KEY_FREE_PERCENT_THRESHOLD, Math.max(1, Math.min(100, percent)))
+                .apply();
+    }
+
+    /**
+     * compactOnLaunch policy for the default RealmConfiguration
+     */
+    public static CompactOnLaunchCallback launchPolicy(Context context) {
+        Context appContext = context.getApplicationContext();
+        return (totalBytes, usedBytes) -> {
+            SharedPreferences prefs = prefs(appContext);
+            boolean requested = prefs.getBoolean(KEY_COMPACTION_REQUESTED, false);
+            CompactionPolicy policy = new CompactionPolicy(getFreePercentThreshold(appContext),
+                    CompactionPolicy.DEFAULT_MIN_FILE_BYTES);
+            boolean compact = policy.shouldCompact(totalBytes, usedBytes, requested);
+
+            SharedPreferences.Editor editor = prefs.edit()
+                    .putLong(KEY_CHECK_TOTAL_BYTES, totalBytes)
+                    .putLong(KEY_CHECK_USED_BYTES, usedBytes)
+                    .putLong(KEY_CHECK_AT, System.currentTimeMillis());
+            if (compact) {
+                compactionReason = requested
+                        ? prefs.getString(KEY_REQUEST_REASON, "requested")
+                        : CompactionPolicy.freePercent(totalBytes, usedBytes) + "% free";
+                compactionBeforeBytes = totalBytes;
+                compactionStartNanos = System.nanoTime();
+                editor.putBoolean(KEY_COMPACTION_REQUESTED, false).remove(KEY_REQUEST_REASON);
+            }
+            editor.apply();
+
+            Log.d(TAG, "Launch check - total: " + totalBytes + " bytes, used: " + usedBytes
+                    + " bytes, compact: " + compact);
+            return compact;
+        };
+    }
+
+    /**
+     * Open the default Realm once on a background thread so migration and launch
+     * compaction run there instead of on the first activity's main thread.
+     * The returned future completes (even if the open failed) when it is done.
+     */
+    public static CompletableFuture<Void> openInBackground(Context context) {
+        Context appContext = context.getApplicationContext();
+        Thread thread = new Thread(() -> {
+            RealmConfiguration config = Realm.getDefaultConfiguration();
+            Realm realm = null;
+            try {
+                realm = Realm.getDefaultInstance();
+                recordCompaction(appContext, config);
+            } catch (Exception e) {
+                Log.e(TAG, "Error opening Realm for launch compaction: ", e);
+            } finally {
+                if (realm != null) {
+                    realm.close();
+                }
+                // A failed open is reported again by the first DatabaseHelper.open()
+                READY.complete(null);
+            }
+        }, "realm-compaction");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        thread.start();
+        return READY;
+    }
+
+    /**
+     * Completes when the launch open from openInBackground() has finished;
+     * callbacks run on the background thread unless an executor is supplied
+     */
+    public static CompletableFuture<Void> whenReady() {
+        return READY;
+    }
+
+    public static boolean isReady() {
+        return READY.isDone();
+    }
+
+    private static void recordCompaction(Context context, RealmConfiguration config) {
+        long startNanos = compactionStartNanos;
+        if (startNanos == 0 || config == null) {
+            return;
+        }
+        compactionStartNanos = 0;
+
+        long durationMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        long afterBytes = new File(config.getPath()).length();
+        prefs(context).edit()
+                .putLong(KEY_COMPACTION_BEFORE_BYTES, compactionBeforeBytes)
+                .putLong(KEY_COMPACTION_AFTER_BYTES, afterBytes)
+                .putLong(KEY_COMPACTION_DURATION_MS, durationMillis)
+                .putLong(KEY_COMPACTION_AT, System.currentTimeMillis())
+                .putString(KEY_COMPACTION_REASON, compactionReason)
+                .apply();
+
+        Log.d(TAG, "Compacted Realm from " + compactionBeforeBytes + " to " + afterBytes
+                + " bytes in " + durationMillis + " ms (" + compactionReason + ")");
+    }
+
+    /**
+     * Human-readable report of the last launch check and compaction, for debugging
+     */
+    public static String describe(Context context) {
+        SharedPreferences prefs = prefs(context);
+        StringBuilder report = new StringBuilder();
+
+        RealmConfiguration config = Realm.getDefaultConfiguration();
+        if (config != null) {
+            report.append("File now: ").append(formatBytes(new File(config.getPath()).length())).append('\n');
+        }
+
+        long checkAt = prefs.getLong(KEY_CHECK_AT, 0L);
+        if (checkAt > 0) {
+            long total = prefs.getLong(KEY_CHECK_TOTAL_BYTES, 0L);
+            long used = prefs.getLong(KEY_CHECK_USED_BYTES, 0L);
+            report.append("Last launch check: ").append(formatTime(context, checkAt)).append('\n')
+                    .append("  size ").append(formatBytes(total))
+                    .append(", used ").append(formatBytes(used))
+                    .append(" (").append(CompactionPolicy.freePercent(total, used)).append("% free)\n");
+        } else {
+            report.append("Last launch check: never\n");
+        }
+        report.append("Threshold: ").append(getFreePercentThreshold(context)).append("% free");
+        if (prefs.getBoolean(KEY_COMPACTION_REQUESTED, false)) {
+            report.append(", compaction pending (").append(prefs.getString(KEY_REQUEST_REASON, "")).append(')');
+        }
+        report.append('\n');
+
+        long compactedAt = prefs.getLong(KEY_COMPACTION_AT, 0L);
+        if (compactedAt > 0) {
+            report.append("Last compaction: ").append(formatTime(context, compactedAt)).append('\n')
+                    .append("  ").append(formatBytes(prefs.getLong(KEY_COMPACTION_BEFORE_BYTES, 0L)))
+                    .append(" -> ").append(formatBytes(prefs.getLong(KEY_COMPACTION_AFTER_BYTES, 0L)))
+                    .append(" in ").append(prefs.getLong(KEY_COMPACTION_DURATION_MS, 0L)).append(" ms\n")
+                    .append("  reason: ").append(prefs.getString(KEY_COMPACTION_REASON, ""));
+        } else {
+            report.append("Last compaction: never");
+        }
+        return report.toString();
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.US, "%.1f KB", bytes / 1024.0);
+        }
+        return String.format(Locale.US, "%.2f MB", bytes / (1024.0 * 1024));
+    }
+
+    private static CharSequence formatTime(Context context, long millis) {
+        return DateFormat.getDateFormat(context).format(millis) + " " + DateFormat.getTimeFormat(context).format(millis);
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
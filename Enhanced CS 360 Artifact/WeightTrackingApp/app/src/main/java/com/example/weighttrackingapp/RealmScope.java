@@ -0,0 +1,97 @@
+package com.example.weighttrackingapp;
+
+import android.os.Looper;
+import android.os.StrictMode;
+import android.util.Log;
+
+import io.realm.Realm;
+
+/**
+ * Reference-counted Realm handle, one per thread.
+ *
+ * Activities pin their thread's instance from onCreate to onDestroy through
+ * DatabaseHelper.open()/close(), so the per-call acquire()/release() pairs in
+ * DatabaseHelper only move a counter instead of opening and closing Realm.
+ * Background workers use the same pair; their instance is closed when the
+ * last reference on that thread is released.
+ */
+public final class RealmScope {
+
+    private static final String TAG = "RealmScope";
+
+    private static final ThreadLocal<Realm> THREAD_REALM = new ThreadLocal<>();
+    private static final ThreadLocal<int[]> THREAD_REF_COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    private RealmScope() {}
+
+    /**
+     * Get this thread's Realm for a database call, opening it on first use
+     */
+    public static Realm acquire() {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            // Reported by the debug StrictMode policy in WeightTrackerApplication
+            StrictMode.noteSlowCall("Realm query on main thread");
+        }
+        return pin();
+    }
+
+    /**
+     * Get this thread's Realm without a StrictMode report; used to hold a
+     * lifecycle reference, not to query
+     */
+    public static Realm pin() {
+        Realm realm = THREAD_REALM.get();
+        int[] refCount = THREAD_REF_COUNT.get();
+
+        if (realm == null || realm.isClosed()) {
+            realm = Realm.getDefaultInstance();
+            THREAD_REALM.set(realm);
+            refCount[0] = 0;
+            Log.d(TAG, "Opened Realm for thread: " + Thread.currentThread().getName());
+        } else if (Looper.myLooper() == null && !realm.isInTransaction()) {
+            // Looper threads auto-refresh; pinned worker threads must catch up explicitly
+            realm.refresh();
+        }
+
+        refCount[0]++;
+        return realm;
+    }
+
+    /**
+     * Drop one reference; the Realm is closed when the count reaches zero.
+     * Only this thread's instance from acquire()/pin() may be released here;
+     * anything else is reported as a misuse and left open for its owner.
+     */
+    public static void release(Realm realm) {
+        if (realm == null) {
+            return;
+        }
+        if (realm != THREAD_REALM.get()) {
+            // Released twice, released on another thread, or never acquired through this scope.
+            // Closing it here would throw for a foreign thread's Realm or pull it out from under its owner.
+            Log.e(TAG, "release() called with a Realm this thread does not hold",
+                    new IllegalStateException("Unbalanced RealmScope.release on " + Thread.currentThread().getName()));
+            return;
+        }
+
+        int[] refCount = THREAD_REF_COUNT.get();
+        refCount[0]--;
+
+        if (refCount[0] <= 0) {
+            refCount[0] = 0;
+            THREAD_REALM.remove();
+            if (!realm.isClosed()) {
+                realm.close();
+            }
+            Log.d(TAG, "Closed Realm for thread: " + Thread.currentThread().getName());
+        }
+    }
+
+    /**
+     * Number of live references held on the calling thread
+     */
+    public static int referenceCount() {
+        Realm realm = THREAD_REALM.get();
+        return (realm == null || realm.isClosed()) ? 0 : THREAD_REF_COUNT.get()[0];
+    }
+}
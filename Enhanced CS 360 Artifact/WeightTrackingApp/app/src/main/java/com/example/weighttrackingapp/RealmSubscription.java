@@ -0,0 +1,40 @@
+package com.example.weighttrackingapp;
+
+import io.realm.Realm;
+import io.realm.RealmResults;
+
+/**
+ * Handle for a live Realm query registered by DatabaseHelper.observe*().
+ *
+ * Holds a strong reference to the observed results (listeners on
+ * garbage-collected results stop firing) and a pinned reference to the
+ * thread's Realm. Call cancel() from the same thread, before the owning
+ * DatabaseHelper is closed.
+ */
+public final class RealmSubscription {
+
+    private Realm realm;
+    private RealmResults<?> results;
+
+    RealmSubscription(Realm realm, RealmResults<?> results) {
+        this.realm = realm;
+        this.results = results;
+    }
+
+    public boolean isActive() {
+        return results != null;
+    }
+
+    /**
+     * Stop delivering changes and release the pinned Realm
+     */
+    public void cancel() {
+        if (results == null) {
+            return;
+        }
+        results.removeAllChangeListeners();
+        results = null;
+        RealmScope.release(realm);
+        realm = null;
+    }
+}
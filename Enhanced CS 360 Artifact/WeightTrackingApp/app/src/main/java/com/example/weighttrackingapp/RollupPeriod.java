@@ -0,0 +1,54 @@
+package com.example.weighttrackingapp;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Bucket sizes for pre-aggregated weight rollups.
+ * Buckets are aligned to local midnight; weeks start on Monday (ISO-8601).
+ */
+public enum RollupPeriod {
+    DAY,
+    WEEK,
+    MONTH;
+
+    /**
+     * Epoch millis at the start of the bucket containing timestampMillis
+     */
+    public long periodStart(long timestampMillis, ZoneId zone) {
+        return toMillis(startDate(Instant.ofEpochMilli(timestampMillis).atZone(zone).toLocalDate()), zone);
+    }
+
+    /**
+     * Epoch millis at the start of the bucket after the one starting at periodStartMillis
+     */
+    public long nextPeriodStart(long periodStartMillis, ZoneId zone) {
+        LocalDate start = Instant.ofEpochMilli(periodStartMillis).atZone(zone).toLocalDate();
+        switch (this) {
+            case DAY:
+                return toMillis(start.plusDays(1), zone);
+            case WEEK:
+                return toMillis(start.plusWeeks(1), zone);
+            default:
+                return toMillis(start.plusMonths(1), zone);
+        }
+    }
+
+    private LocalDate startDate(LocalDate date) {
+        switch (this) {
+            case DAY:
+                return date;
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            default:
+                return date.withDayOfMonth(1);
+        }
+    }
+
+    private static long toMillis(LocalDate date, ZoneId zone) {
+        return date.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+}
@@ -2,6 +2,7 @@ package com.example.weighttrackingapp;
 
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.content.pm.ApplicationInfo;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.View;
@@ -39,6 +40,12 @@ public class SettingsActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+
+        // Restored after process death before Realm finished opening: start over at the launcher
+        if (!LoginActivity.ensureRealmReady(this)) {
+            return;
+        }
+
         setContentView(R.layout.activity_settings);
 
         Log.d(TAG, "SettingsActivity onCreate started");
@@ -68,6 +75,7 @@ public class SettingsActivity extends AppCompatActivity {
     private void initializeData() {
         try {
             databaseHelper = new DatabaseHelper(this);
+            databaseHelper.open(); // One Realm handle for this activity's lifetime
             sharedPreferences = getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
             currentUsername = sharedPreferences.getString("username", "");
 
@@ -135,6 +143,14 @@ public class SettingsActivity extends AppCompatActivity {
             layoutLogout.setOnClickListener(v -> showLogoutConfirmation());
             layoutDeleteAccount.setOnClickListener(v -> showDeleteAccountConfirmation());
 
+            // Debug builds: long-press the title for Realm file and compaction stats
+            if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+                findViewById(R.id.tvTitle).setOnLongClickListener(v -> {
+                    showStorageDebugInfo();
+                    return true;
+                });
+            }
+
             Log.d(TAG, "Click listeners set up successfully");
         } catch (Exception e) {
             Log.e(TAG, "Error setting up click listeners: ", e);
@@ -143,17 +159,23 @@ public class SettingsActivity extends AppCompatActivity {
 
     private void loadCurrentSettings() {
         try {
-            // Load weight values
-            double currentWeight = databaseHelper.getCurrentWeight(currentUsername);
-            double goalWeight = databaseHelper.getGoalWeight(currentUsername);
+            // Load weight values in a single lookup, off the UI thread
+            databaseHelper.getUserProfileSnapshotAsync(currentUsername).thenAccept(profile -> {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
 
-            // Safe setText with null checks
-            if (tvCurrentWeightValue != null) {
-                tvCurrentWeightValue.setText(String.format("%.1f kg", currentWeight));
-            }
-            if (tvGoalWeightValue != null) {
-                tvGoalWeightValue.setText(String.format("%.1f kg", goalWeight));
-            }
+                double currentWeight = profile != null ? profile.getCurrentWeight() : 0.0;
+                double goalWeight = profile != null ? profile.getGoalWeight() : 0.0;
+
+                // Safe setText with null checks
+                if (tvCurrentWeightValue != null) {
+                    tvCurrentWeightValue.setText(String.format("%.1f kg", currentWeight));
+                }
+                if (tvGoalWeightValue != null) {
+                    tvGoalWeightValue.setText(String.format("%.1f kg", goalWeight));
+                }
+            });
 
             // Load notification settings
             boolean pushPermissionGranted = settingsPreferences.getBoolean("push_notifications_permission", false);
@@ -294,10 +316,7 @@ public class SettingsActivity extends AppCompatActivity {
     private void showEditCurrentWeight() {
         try {
             EditWeightDialog dialog = new EditWeightDialog(this, currentUsername, databaseHelper);
-            dialog.setOnWeightUpdatedListener(() -> {
-                // Refresh weight values when updated
-                loadCurrentSettings();
-            });
+            dialog.setOnWeightUpdatedListener(weightUpdatedListener());
             dialog.show();
         } catch (Exception e) {
             Log.e(TAG, "Error showing edit current weight dialog: ", e);
@@ -308,10 +327,7 @@ public class SettingsActivity extends AppCompatActivity {
     private void showEditGoalWeight() {
         try {
             EditWeightDialog dialog = new EditWeightDialog(this, currentUsername, databaseHelper);
-            dialog.setOnWeightUpdatedListener(() -> {
-                // Refresh weight values when updated
-                loadCurrentSettings();
-            });
+            dialog.setOnWeightUpdatedListener(weightUpdatedListener());
             dialog.show();
         } catch (Exception e) {
             Log.e(TAG, "Error showing edit goal weight dialog: ", e);
@@ -319,6 +335,26 @@ public class SettingsActivity extends AppCompatActivity {
         }
     }
 
+    // Show the saved values straight from the update instead of re-reading the profile
+    private EditWeightDialog.OnWeightUpdatedListener weightUpdatedListener() {
+        return new EditWeightDialog.OnWeightUpdatedListener() {
+            @Override
+            public void onWeightUpdated() {
+                loadCurrentSettings();
+            }
+
+            @Override
+            public void onProfileUpdated(ProfileUpdate update) {
+                if (update.hasCurrentWeight() && tvCurrentWeightValue != null) {
+                    tvCurrentWeightValue.setText(String.format("%.1f kg", update.getCurrentWeight()));
+                }
+                if (update.hasGoalWeight() && tvGoalWeightValue != null) {
+                    tvGoalWeightValue.setText(String.format("%.1f kg", update.getGoalWeight()));
+                }
+            }
+        };
+    }
+
     private void savePushNotificationSetting(boolean enabled) {
         try {
             SharedPreferences.Editor editor = settingsPreferences.edit();
@@ -424,6 +460,7 @@ public class SettingsActivity extends AppCompatActivity {
                         SharedPreferences.Editor editor = sharedPreferences.edit();
                         editor.putBoolean("isLoggedIn", false);
                         editor.remove("username");
+                        editor.remove("user_id");
                         editor.apply();
 
                         // Redirect to login
@@ -441,6 +478,26 @@ public class SettingsActivity extends AppCompatActivity {
         }
     }
 
+    private void showStorageDebugInfo() {
+        // Reads a few preferences and one file length; cheap enough for the UI thread
+        new AlertDialog.Builder(this)
+                .setTitle("Realm Storage")
+                .setMessage(RealmCompaction.describe(this) + "\n\n" + describeWriteQueue())
+                .setPositiveButton("Compact Next Launch", (dialog, which) -> {
+                    RealmCompaction.requestCompaction(this, "manual request");
+                    showToast("Realm will be compacted on next launch");
+                })
+                .setNegativeButton("Close", null)
+                .show();
+    }
+
+    private String describeWriteQueue() {
+        GroupCommitQueue.Metrics metrics = DatabaseHelper.getWriteQueueMetrics();
+        return String.format("Write queue: %d writes in %d transactions (avg %.1f, max %d)",
+                metrics.getOperationCount(), metrics.getBatchCount(),
+                metrics.getAverageBatchSize(), metrics.getLargestBatch());
+    }
+
     private void showDeleteAccountConfirmation() {
         try {
             new AlertDialog.Builder(this)
@@ -473,26 +530,44 @@ public class SettingsActivity extends AppCompatActivity {
     }
 
     private void deleteUserAccount() {
-        try {
-            Log.d(TAG, "Starting account deletion for user: " + currentUsername);
+        Log.d(TAG, "Starting account deletion for user: " + currentUsername);
+        final String username = currentUsername;
+        final long startTime = System.currentTimeMillis();
+
+        // Large histories take a moment; keep the user informed
+        AlertDialog progressDialog = new AlertDialog.Builder(this)
+                .setTitle("Deleting Account")
+                .setMessage("Deleting your data...")
+                .setCancelable(false)
+                .show();
+
+        DatabaseHelper.DeletionProgressListener progressListener = (deleted, total) -> {
+            if (progressDialog.isShowing()) {
+                progressDialog.setMessage(String.format("Deleted %d of %d entries...", deleted, total));
+            }
+        };
 
-            // Get user ID
-            int userId = databaseHelper.getUserId(currentUsername);
+        // Look up and delete the user, entries and rollups in one background transaction
+        DatabaseExecutor.supply(() -> {
+            int userId = databaseHelper.getUserId(username);
             if (userId == -1) {
-                showToast("Error: User not found");
-                Log.e(TAG, "User not found when trying to delete: " + currentUsername);
-                return;
+                Log.e(TAG, "User not found when trying to delete: " + username);
+                return null;
             }
 
-            // Delete all user's weight entries
-            boolean entriesDeleted = databaseHelper.deleteAllUserEntries(userId);
-            Log.d(TAG, "Weight entries deletion result: " + entriesDeleted);
-
-            // Delete user account
-            boolean userDeleted = databaseHelper.deleteUser(userId);
+            boolean userDeleted = databaseHelper.deleteUserAccount(userId, (deleted, total) ->
+                    DatabaseExecutor.mainThread().execute(() -> progressListener.onProgress(deleted, total)));
             Log.d(TAG, "User account deletion result: " + userDeleted);
+            return userDeleted;
+        }).thenAccept(userDeleted -> {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            progressDialog.dismiss();
 
-            if (userDeleted) {
+            if (userDeleted == null) {
+                showToast("Error: User not found");
+            } else if (userDeleted) {
                 // Clear all preferences
                 clearAllUserPreferences();
 
@@ -507,16 +582,19 @@ public class SettingsActivity extends AppCompatActivity {
                 startActivity(intent);
                 finish();
 
-                Log.d(TAG, "Account deletion completed successfully");
+                Log.d(TAG, "Account deletion completed in " + (System.currentTimeMillis() - startTime) + " ms");
             } else {
                 showToast("Failed to delete account. Please try again.");
                 Log.e(TAG, "Failed to delete user account from database");
             }
-
-        } catch (Exception e) {
+        }).exceptionally(e -> {
             Log.e(TAG, "Error deleting user account: ", e);
+            if (!isFinishing() && !isDestroyed()) {
+                progressDialog.dismiss();
+            }
             showToast("Error deleting account: " + e.getMessage());
-        }
+            return null;
+        });
     }
 
     private void clearAllUserPreferences() {
@@ -566,6 +644,9 @@ public class SettingsActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        // Realm handles connection lifecycle automatically - no close needed
+        // Release the Realm handle pinned in onCreate
+        if (databaseHelper != null) {
+            databaseHelper.close();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.example.weighttrackingapp;
+
+/**
+ * Time-aware exponential moving average for the trend weight.
+ *
+ * Uses 10% smoothing per day; irregular gaps are handled by compounding the
+ * daily factor over the elapsed time, so two entries a week apart move the
+ * trend further than two entries an hour apart.
+ */
+final class TrendFilter {
+
+    static final double DAILY_SMOOTHING = 0.1;
+
+    private static final double MILLIS_PER_DAY = 24.0 * 60 * 60 * 1000;
+
+    private TrendFilter() {}
+
+    /**
+     * Trend after folding in weight measured at timestampMillis
+     */
+    static double next(double previousTrend, long previousTimestampMillis, double weight, long timestampMillis) {
+        double elapsedDays = Math.max(0, timestampMillis - previousTimestampMillis) / MILLIS_PER_DAY;
+        double alpha = 1 - Math.pow(1 - DAILY_SMOOTHING, elapsedDays);
+        return previousTrend + alpha * (weight - previousTrend);
+    }
+}
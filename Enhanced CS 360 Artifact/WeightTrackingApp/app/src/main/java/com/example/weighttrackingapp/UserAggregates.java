@@ -0,0 +1,129 @@
+package com.example.weighttrackingapp;
+
+import com.example.weighttrackingapp.models.UserRealm;
+import com.example.weighttrackingapp.models.WeightEntryRealm;
+
+import io.realm.RealmQuery;
+import io.realm.Sort;
+
+/**
+ * Keeps the aggregate fields on UserRealm in step with its weight entries.
+ *
+ * Every method must run inside the write transaction that changes the entry,
+ * so the aggregates commit atomically with the data. Adds are O(1); removals
+ * fall back to an indexed lookup only when the removed entry was the latest,
+ * the first or an extreme value. Each change also bumps dataVersion so
+ * cached derived results (WeightStatistics) can tell they are stale.
+ */
+final class UserAggregates {
+
+    private UserAggregates() {}
+
+    /**
+     * Fold a newly stored entry into the user's aggregates
+     */
+    static void onEntryAdded(UserRealm user, WeightEntryRealm entry) {
+        double weight = entry.getWeight();
+        long timestamp = entry.getTimestampMillis();
+        int count = user.getEntryCount();
+
+        if (count == 0) {
+            user.setMinWeight(weight);
+            user.setMaxWeight(weight);
+            user.setFirstTimestampMillis(timestamp);
+            setLatest(user, entry);
+        } else {
+            user.setMinWeight(Math.min(user.getMinWeight(), weight));
+            user.setMaxWeight(Math.max(user.getMaxWeight(), weight));
+            if (timestamp < user.getFirstTimestampMillis()) {
+                user.setFirstTimestampMillis(timestamp);
+            }
+            if (isNewerThanLatest(user, timestamp, entry.getId())) {
+                setLatest(user, entry);
+            }
+        }
+
+        user.setEntryCount(count + 1);
+        user.setWeightSum(user.getWeightSum() + weight);
+        bumpDataVersion(user);
+    }
+
+    /**
+     * Take an entry out of the aggregates; call before it is deleted or modified
+     */
+    static void onEntryRemoved(UserRealm user, WeightEntryRealm entry) {
+        bumpDataVersion(user);
+        int count = user.getEntryCount() - 1;
+        if (count <= 0) {
+            reset(user);
+            return;
+        }
+
+        int entryId = entry.getId();
+        double weight = entry.getWeight();
+        user.setEntryCount(count);
+        user.setWeightSum(user.getWeightSum() - weight);
+
+        // Only a removed boundary value needs a lookup over the remaining entries
+        if (entryId == user.getLatestEntryId()) {
+            WeightEntryRealm latest = remaining(user, entryId)
+                    .sort(new String[]{"timestampMillis", "id"}, new Sort[]{Sort.DESCENDING, Sort.DESCENDING})
+                    .findFirst();
+            if (latest != null) {
+                setLatest(user, latest);
+            }
+        }
+        if (entry.getTimestampMillis() == user.getFirstTimestampMillis()) {
+            Number first = remaining(user, entryId).min("timestampMillis");
+            user.setFirstTimestampMillis(first != null ? first.longValue() : 0L);
+        }
+        if (weight == user.getMinWeight()) {
+            Number min = remaining(user, entryId).min("weight");
+            user.setMinWeight(min != null ? min.doubleValue() : 0.0);
+        }
+        if (weight == user.getMaxWeight()) {
+            Number max = remaining(user, entryId).max("weight");
+            user.setMaxWeight(max != null ? max.doubleValue() : 0.0);
+        }
+    }
+
+    /**
+     * Rebuild every aggregate from the user's entries (imports, repairs)
+     */
+    static void recompute(UserRealm user) {
+        reset(user);
+        for (WeightEntryRealm entry : DatabaseHelper.entriesOf(user).findAll()) {
+            onEntryAdded(user, entry);
+        }
+        bumpDataVersion(user);
+    }
+
+    private static RealmQuery<WeightEntryRealm> remaining(UserRealm user, int excludedEntryId) {
+        return DatabaseHelper.entriesOf(user).notEqualTo("id", excludedEntryId);
+    }
+
+    // Newest by timestamp, then id, matching the sorted entry queries
+    private static boolean isNewerThanLatest(UserRealm user, long timestamp, int entryId) {
+        long latest = user.getLatestTimestampMillis();
+        return timestamp > latest || (timestamp == latest && entryId > user.getLatestEntryId());
+    }
+
+    private static void setLatest(UserRealm user, WeightEntryRealm entry) {
+        user.setLatestEntryId(entry.getId());
+        user.setLatestTimestampMillis(entry.getTimestampMillis());
+    }
+
+    private static void bumpDataVersion(UserRealm user) {
+        user.setDataVersion(user.getDataVersion() + 1);
+    }
+
+    private static void reset(UserRealm user) {
+        user.setEntryCount(0);
+        user.setLatestEntryId(0);
+        user.setLatestTimestampMillis(0L);
+        user.setFirstTimestampMillis(0L);
+        user.setMinWeight(0.0);
+        user.setMaxWeight(0.0);
+        user.setWeightSum(0.0);
+    }
+}
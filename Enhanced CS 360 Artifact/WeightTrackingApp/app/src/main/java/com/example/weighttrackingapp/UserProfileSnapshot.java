@@ -0,0 +1,106 @@
+package com.example.weighttrackingapp;
+
+/**
+ * Immutable view of a user's profile read in a single Realm lookup.
+ * Screens that need several profile fields read one snapshot instead of
+ * calling the per-field DatabaseHelper getters.
+ */
+public final class UserProfileSnapshot {
+
+    private final int userId;
+    private final String username;
+    private final double startingWeight;
+    private final double currentWeight;
+    private final double goalWeight;
+    private final int entryCount;
+    private final WeightEntry latestEntry;
+    private final String firstEntryDate;
+    private final double trendWeight;
+    private final GoalProjection goalProjection;
+
+    public UserProfileSnapshot(int userId, String username, double startingWeight, double currentWeight,
+                               double goalWeight, int entryCount, WeightEntry latestEntry, String firstEntryDate,
+                               double trendWeight, GoalProjection goalProjection) {
+        this.userId = userId;
+        this.username = username;
+        this.startingWeight = startingWeight;
+        this.currentWeight = currentWeight;
+        this.goalWeight = goalWeight;
+        this.entryCount = entryCount;
+        this.latestEntry = latestEntry;
+        this.firstEntryDate = firstEntryDate;
+        this.trendWeight = trendWeight;
+        this.goalProjection = goalProjection;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public double getStartingWeight() {
+        return startingWeight;
+    }
+
+    public double getCurrentWeight() {
+        return currentWeight;
+    }
+
+    public double getGoalWeight() {
+        return goalWeight;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    // Most recent entry by date/time, null when the user has no entries
+    public WeightEntry getLatestEntry() {
+        return latestEntry;
+    }
+
+    // Date (yyyy-MM-dd) of the oldest entry, null when the user has no entries
+    public String getFirstEntryDate() {
+        return firstEntryDate;
+    }
+
+    // Smoothed weight at the newest entry, 0.0 when the user has no entries
+    public double getTrendWeight() {
+        return trendWeight;
+    }
+
+    // Fitted line over recent entries, null until there are enough of them
+    public GoalProjection getGoalProjection() {
+        return goalProjection;
+    }
+
+    /**
+     * Projected date (epoch millis) for reaching the goal weight, or -1 when unknown
+     */
+    public long getProjectedGoalDateMillis() {
+        return goalProjection != null ? goalProjection.getGoalDateMillis(goalWeight) : -1;
+    }
+
+    public boolean hasEntries() {
+        return entryCount > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "UserProfileSnapshot{" +
+                "userId=" + userId +
+                ", username='" + username + '\'' +
+                ", startingWeight=" + startingWeight +
+                ", currentWeight=" + currentWeight +
+                ", goalWeight=" + goalWeight +
+                ", entryCount=" + entryCount +
+                ", latestEntry=" + latestEntry +
+                ", firstEntryDate='" + firstEntryDate + '\'' +
+                ", trendWeight=" + trendWeight +
+                ", goalProjection=" + goalProjection +
+                '}';
+    }
+}
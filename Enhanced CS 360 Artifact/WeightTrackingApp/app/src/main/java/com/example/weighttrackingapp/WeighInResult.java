@@ -0,0 +1,113 @@
+package com.example.weighttrackingapp;
+
+/**
+ * Outcome of DatabaseHelper.recordWeighIn: the user's state captured just
+ * before and just after the insert, in the same write transaction, plus the
+ * achievements the weigh-in crossed.
+ *
+ * A back-dated entry leaves the current weight unchanged, so it never
+ * reports a goal or milestone crossing. A user's first weigh-in has no
+ * previous weight; it is measured from the profile's starting weight, or
+ * against the goal alone when no starting weight is set.
+ */
+public final class WeighInResult {
+
+    static final int MILESTONE_STEP_KG = 5;
+
+    private final long entryId;
+    private final double weight;
+    private final double previousWeight;
+    private final double currentWeight;
+    private final double goalWeight;
+    private final double startingWeight;
+    private final int entryCount;
+    private final boolean goalReached;
+    private final int milestoneKg;
+
+    private WeighInResult(long entryId, double weight, double previousWeight, double currentWeight,
+                          double goalWeight, double startingWeight, int entryCount,
+                          boolean goalReached, int milestoneKg) {
+        this.entryId = entryId;
+        this.weight = weight;
+        this.previousWeight = previousWeight;
+        this.currentWeight = currentWeight;
+        this.goalWeight = goalWeight;
+        this.startingWeight = startingWeight;
+        this.entryCount = entryCount;
+        this.goalReached = goalReached;
+        this.milestoneKg = milestoneKg;
+    }
+
+    /**
+     * Build a result and work out which achievements moving from previousWeight
+     * to currentWeight crossed. previousWeight is 0 when the user had no weight yet.
+     */
+    static WeighInResult of(long entryId, double weight, double previousWeight, double currentWeight,
+                            double goalWeight, double startingWeight, int entryCount) {
+        // NaN when there is nothing to compare against
+        double baseline = previousWeight > 0 ? previousWeight
+                : startingWeight > 0 ? startingWeight : Double.NaN;
+
+        boolean goalReached = goalWeight > 0 && currentWeight <= goalWeight
+                && (Double.isNaN(baseline) || baseline > goalWeight);
+
+        int milestoneKg = 0;
+        if (startingWeight > 0 && currentWeight < baseline) {
+            int previousMilestone = milestoneFor(startingWeight - baseline);
+            int newMilestone = milestoneFor(startingWeight - currentWeight);
+            if (newMilestone > previousMilestone && newMilestone >= MILESTONE_STEP_KG) {
+                milestoneKg = newMilestone;
+            }
+        }
+
+        return new WeighInResult(entryId, weight, previousWeight, currentWeight,
+                goalWeight, startingWeight, entryCount, goalReached, milestoneKg);
+    }
+
+    // Largest whole multiple of the milestone step within the weight lost
+    private static int milestoneFor(double weightLost) {
+        return (int) (weightLost / MILESTONE_STEP_KG) * MILESTONE_STEP_KG;
+    }
+
+    public long getEntryId() {
+        return entryId;
+    }
+
+    // Weight recorded by this weigh-in
+    public double getWeight() {
+        return weight;
+    }
+
+    // Current weight before the weigh-in, 0.0 for a user's first entry
+    public double getPreviousWeight() {
+        return previousWeight;
+    }
+
+    // Current weight after the weigh-in (the newest entry's weight)
+    public double getCurrentWeight() {
+        return currentWeight;
+    }
+
+    public double getGoalWeight() {
+        return goalWeight;
+    }
+
+    public double getStartingWeight() {
+        return startingWeight;
+    }
+
+    // Entry count including this weigh-in
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    // True when this weigh-in took the current weight from above the goal to at or below it
+    public boolean isGoalReached() {
+        return goalReached;
+    }
+
+    // Newly crossed weight-loss milestone in kg, 0 when none was crossed
+    public int getMilestoneKg() {
+        return milestoneKg;
+    }
+}
@@ -1,13 +1,18 @@
 package com.example.weighttrackingapp;
 
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 
 public class WeightEntry {
+
     private int id;
     private int userId;
     private double weight;
     private String date;
     private String time;
     private String notes;
+    private long timestampMillis; // Epoch sort key, 0 when not yet computed
 
     // Constructors
     public WeightEntry() {}
@@ -21,6 +26,11 @@ public class WeightEntry {
         this.notes = notes;
     }
 
+    public WeightEntry(int id, int userId, double weight, String date, String time, String notes, long timestampMillis) {
+        this(id, userId, weight, date, time, notes);
+        this.timestampMillis = timestampMillis;
+    }
+
     public WeightEntry(int userId, double weight, String date, String time, String notes) {
         this.userId = userId;
         this.weight = weight;
@@ -78,6 +88,28 @@ public class WeightEntry {
         this.notes = notes;
     }
 
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public void setTimestampMillis(long timestampMillis) {
+        this.timestampMillis = timestampMillis;
+    }
+
+    /**
+     * Epoch sort key for a stored date ("yyyy-MM-dd") and time ("HH:mm:ss"),
+     * or 0 when they cannot be parsed. Computed once per row, so ordering
+     * entries never parses strings again.
+     */
+    static long sortKey(SimpleDateFormat format, String date, String time) {
+        try {
+            Date parsed = format.parse(date + " " + time);
+            return parsed != null ? parsed.getTime() : 0L;
+        } catch (ParseException e) {
+            return 0L;
+        }
+    }
+
     // Helper methods
     public String getFormattedWeight() {
         return String.format("%.1f kg", weight);
@@ -0,0 +1,249 @@
+package com.example.weighttrackingapp;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * CSV codec for weight history backups.
+ *
+ * Columns are date,time,weight,notes using the same yyyy-MM-dd / HH:mm:ss
+ * strings stored in Realm. Rows are written and parsed one at a time so
+ * export and import run in constant memory regardless of history size.
+ */
+public final class WeightHistoryCsv {
+
+    static final String HEADER = "date,time,weight,notes";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private WeightHistoryCsv() {}
+
+    /**
+     * Buffered UTF-8 writer over a channel (file, socket or content Uri stream)
+     */
+    public static Writer newWriter(WritableByteChannel channel) {
+        return new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1), BUFFER_SIZE);
+    }
+
+    /**
+     * Buffered UTF-8 reader over a channel
+     */
+    public static Reader newReader(ReadableByteChannel channel) {
+        return new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1), BUFFER_SIZE);
+    }
+
+    static void writeHeader(Writer out) throws IOException {
+        out.write(HEADER);
+        out.write('\n');
+    }
+
+    static void writeRow(Writer out, String date, String time, double weight, String notes) throws IOException {
+        writeField(out, date);
+        out.write(',');
+        writeField(out, time);
+        out.write(',');
+        out.write(Double.toString(weight));
+        out.write(',');
+        writeField(out, notes);
+        out.write('\n');
+    }
+
+    private static void writeField(Writer out, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                needsQuotes = true;
+                break;
+            }
+        }
+
+        if (!needsQuotes) {
+            out.write(value);
+            return;
+        }
+
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"'); // Escape by doubling
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    /**
+     * Stream parsed rows as WeightEntry objects for the given user.
+     * The returned Iterable is single-use and reads lazily from in.
+     */
+    public static RowReader rows(Reader in, int userId) {
+        return new RowReader(in, userId);
+    }
+
+    /**
+     * Single-pass row iterator; malformed rows are skipped and counted
+     */
+    public static final class RowReader implements Iterable<WeightEntry> {
+
+        private final Reader in;
+        private final int userId;
+        private final StringBuilder field = new StringBuilder();
+        private final List<String> record = new ArrayList<>(4);
+        private boolean started;
+        private int skippedRows;
+
+        private RowReader(Reader in, int userId) {
+            this.in = in;
+            this.userId = userId;
+        }
+
+        public int getSkippedRows() {
+            return skippedRows;
+        }
+
+        @Override
+        public Iterator<WeightEntry> iterator() {
+            if (started) {
+                throw new IllegalStateException("CSV rows can only be iterated once");
+            }
+            started = true;
+
+            return new Iterator<WeightEntry>() {
+                private WeightEntry next;
+                private boolean firstRecord = true;
+                private boolean done;
+
+                @Override
+                public boolean hasNext() {
+                    if (next == null && !done) {
+                        next = advance();
+                        done = next == null;
+                    }
+                    return next != null;
+                }
+
+                @Override
+                public WeightEntry next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    WeightEntry entry = next;
+                    next = null;
+                    return entry;
+                }
+
+                private WeightEntry advance() {
+                    try {
+                        while (readRecord()) {
+                            boolean isHeader = firstRecord && !record.isEmpty() && "date".equals(record.get(0));
+                            firstRecord = false;
+                            if (isHeader || isBlank()) {
+                                continue;
+                            }
+
+                            WeightEntry entry = toEntry();
+                            if (entry != null) {
+                                return entry;
+                            }
+                            skippedRows++;
+                        }
+                        return null;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            };
+        }
+
+        private boolean isBlank() {
+            return record.size() == 1 && record.get(0).isEmpty();
+        }
+
+        private WeightEntry toEntry() {
+            if (record.size() < 3) {
+                return null;
+            }
+
+            String date = record.get(0);
+            String time = record.get(1);
+            if (date.isEmpty() || time.isEmpty()) {
+                return null;
+            }
+
+            double weight;
+            try {
+                weight = Double.parseDouble(record.get(2));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (weight <= 0) {
+                return null;
+            }
+
+            String notes = record.size() > 3 ? record.get(3) : "";
+            return new WeightEntry(userId, weight, date, time, notes);
+        }
+
+        /**
+         * Read the next record into this.record; false at end of input
+         */
+        private boolean readRecord() throws IOException {
+            record.clear();
+            field.setLength(0);
+
+            int c = in.read();
+            if (c == -1) {
+                return false;
+            }
+
+            boolean inQuotes = false;
+            while (c != -1) {
+                if (inQuotes) {
+                    if (c == '"') {
+                        int peek = in.read();
+                        if (peek == '"') {
+                            field.append('"');
+                        } else {
+                            inQuotes = false;
+                            c = peek;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    inQuotes = true;
+                } else if (c == ',') {
+                    record.add(field.toString().trim());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = in.read();
+            }
+
+            record.add(field.toString().trim());
+            return true;
+        }
+    }
+}
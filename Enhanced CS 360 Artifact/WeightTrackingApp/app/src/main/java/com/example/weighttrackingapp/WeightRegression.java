@@ -0,0 +1,157 @@
+package com.example.weighttrackingapp;
+
+import com.example.weighttrackingapp.models.UserRealm;
+import com.example.weighttrackingapp.models.WeightEntryRealm;
+
+/**
+ * Maintains the least-squares sums (n, Σx, Σy, Σxy, Σx²) over the last
+ * WINDOW_DAYS of entries on UserRealm, for GoalProjection.
+ *
+ * The window ends at the user's newest entry. Every method must run inside
+ * the write transaction that changes the entry, after UserAggregates has been
+ * updated. An entry inside the window is added or subtracted in O(1); when the
+ * window slides forward only the entries that fall out of it are visited, and
+ * only deleting the newest entry makes it widen back over older entries.
+ *
+ * x is measured from regressionOriginMillis. Whenever the window start moves
+ * past the origin, the sums are shifted onto the new start, so x stays within
+ * about WINDOW_DAYS of zero and Σx² stays bounded however long the history
+ * runs.
+ */
+final class WeightRegression {
+
+    static final int WINDOW_DAYS = 28;
+
+    private static final long WINDOW_MILLIS = WINDOW_DAYS * 24L * 60 * 60 * 1000;
+    private static final double MILLIS_PER_DAY = 24.0 * 60 * 60 * 1000;
+
+    private WeightRegression() {}
+
+    /**
+     * Fold a newly stored (or just modified) entry into the sums
+     */
+    static void onEntryAdded(UserRealm user, WeightEntryRealm entry) {
+        if (user.getRegressionCount() == 0) {
+            // Empty window: rebase x so the sums stay small
+            user.setRegressionOriginMillis(entry.getTimestampMillis());
+            user.setRegressionWindowStartMillis(windowStart(user));
+        }
+
+        if (entry.getTimestampMillis() >= user.getRegressionWindowStartMillis()) {
+            accumulate(user, entry, 1);
+        }
+        slideWindow(user, 0);
+    }
+
+    /**
+     * Take an entry out of the sums; call before it is deleted or modified
+     */
+    static void onEntryRemoved(UserRealm user, WeightEntryRealm entry) {
+        if (user.getEntryCount() == 0) {
+            reset(user);
+            return;
+        }
+
+        if (entry.getTimestampMillis() >= user.getRegressionWindowStartMillis()) {
+            accumulate(user, entry, -1);
+        }
+        slideWindow(user, entry.getId());
+    }
+
+    /**
+     * Rebuild the sums from the user's entries (imports, repairs)
+     */
+    static void recompute(UserRealm user) {
+        reset(user);
+        if (user.getEntryCount() == 0) {
+            return;
+        }
+
+        long start = windowStart(user);
+        user.setRegressionOriginMillis(user.getLatestTimestampMillis());
+        user.setRegressionWindowStartMillis(start);
+        for (WeightEntryRealm entry : DatabaseHelper.entriesOf(user)
+                .greaterThanOrEqualTo("timestampMillis", start)
+                .findAll()) {
+            accumulate(user, entry, 1);
+        }
+    }
+
+    /**
+     * Line fitted to the current window, or null when there is not enough data
+     */
+    static GoalProjection projection(UserRealm user) {
+        return GoalProjection.fromSums(user.getRegressionCount(),
+                user.getRegressionSumX(), user.getRegressionSumY(),
+                user.getRegressionSumXY(), user.getRegressionSumXX(),
+                user.getRegressionOriginMillis(), user.getLatestTimestampMillis());
+    }
+
+    /**
+     * Move the window start to match the newest entry, evicting or re-adding
+     * the entries in between. excludedEntryId (if non-zero) is treated as gone.
+     */
+    private static void slideWindow(UserRealm user, int excludedEntryId) {
+        long current = user.getRegressionWindowStartMillis();
+        long target = windowStart(user);
+        if (target == current) {
+            return;
+        }
+
+        int sign = target > current ? -1 : 1;
+        for (WeightEntryRealm entry : DatabaseHelper.entriesOf(user)
+                .greaterThanOrEqualTo("timestampMillis", Math.min(current, target))
+                .lessThan("timestampMillis", Math.max(current, target))
+                .notEqualTo("id", excludedEntryId)
+                .findAll()) {
+            accumulate(user, entry, sign);
+        }
+        user.setRegressionWindowStartMillis(target);
+
+        if (user.getRegressionCount() == 0) {
+            reset(user);
+            user.setRegressionWindowStartMillis(target);
+        } else if (user.getRegressionOriginMillis() < target) {
+            rebase(user, target);
+        }
+    }
+
+    /**
+     * Move the x origin forward to originMillis, shifting the sums to match
+     */
+    private static void rebase(UserRealm user, long originMillis) {
+        double shiftDays = (originMillis - user.getRegressionOriginMillis()) / MILLIS_PER_DAY;
+        double[] sums = GoalProjection.shiftOrigin(user.getRegressionCount(),
+                user.getRegressionSumX(), user.getRegressionSumY(),
+                user.getRegressionSumXY(), user.getRegressionSumXX(), shiftDays);
+        user.setRegressionSumX(sums[0]);
+        user.setRegressionSumXY(sums[2]);
+        user.setRegressionSumXX(sums[3]);
+        user.setRegressionOriginMillis(originMillis);
+    }
+
+    private static long windowStart(UserRealm user) {
+        return user.getLatestTimestampMillis() - WINDOW_MILLIS;
+    }
+
+    private static void accumulate(UserRealm user, WeightEntryRealm entry, int sign) {
+        double x = (entry.getTimestampMillis() - user.getRegressionOriginMillis()) / MILLIS_PER_DAY;
+        double y = entry.getWeight();
+
+        user.setRegressionCount(user.getRegressionCount() + sign);
+        user.setRegressionSumX(user.getRegressionSumX() + sign * x);
+        user.setRegressionSumY(user.getRegressionSumY() + sign * y);
+        user.setRegressionSumXY(user.getRegressionSumXY() + sign * x * y);
+        user.setRegressionSumXX(user.getRegressionSumXX() + sign * x * x);
+    }
+
+    private static void reset(UserRealm user) {
+        user.setRegressionCount(0);
+        user.setRegressionSumX(0.0);
+        user.setRegressionSumY(0.0);
+        user.setRegressionSumXY(0.0);
+        user.setRegressionSumXX(0.0);
+        user.setRegressionOriginMillis(0L);
+        user.setRegressionWindowStartMillis(0L);
+    }
+}
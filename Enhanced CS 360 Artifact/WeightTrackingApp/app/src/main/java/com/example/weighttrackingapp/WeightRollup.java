@@ -0,0 +1,68 @@
+package com.example.weighttrackingapp;
+
+/**
+ * Immutable summary of one rollup bucket, read from WeightRollupRealm.
+ */
+public final class WeightRollup {
+
+    private final RollupPeriod period;
+    private final long periodStartMillis;
+    private final int count;
+    private final double minWeight;
+    private final double maxWeight;
+    private final double meanWeight;
+    private final double lastWeight;
+
+    public WeightRollup(RollupPeriod period, long periodStartMillis, int count,
+                        double minWeight, double maxWeight, double meanWeight, double lastWeight) {
+        this.period = period;
+        this.periodStartMillis = periodStartMillis;
+        this.count = count;
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+        this.meanWeight = meanWeight;
+        this.lastWeight = lastWeight;
+    }
+
+    public RollupPeriod getPeriod() {
+        return period;
+    }
+
+    public long getPeriodStartMillis() {
+        return periodStartMillis;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getMinWeight() {
+        return minWeight;
+    }
+
+    public double getMaxWeight() {
+        return maxWeight;
+    }
+
+    public double getMeanWeight() {
+        return meanWeight;
+    }
+
+    // Weight of the newest entry in the bucket
+    public double getLastWeight() {
+        return lastWeight;
+    }
+
+    @Override
+    public String toString() {
+        return "WeightRollup{" +
+                "period=" + period +
+                ", periodStartMillis=" + periodStartMillis +
+                ", count=" + count +
+                ", min=" + minWeight +
+                ", max=" + maxWeight +
+                ", mean=" + meanWeight +
+                ", last=" + lastWeight +
+                '}';
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.weighttrackingapp;
+
+import com.example.weighttrackingapp.models.UserRealm;
+import com.example.weighttrackingapp.models.WeightEntryRealm;
+import com.example.weighttrackingapp.models.WeightRollupRealm;
+
+import java.time.ZoneId;
+
+import io.realm.Realm;
+import io.realm.RealmResults;
+import io.realm.Sort;
+
+/**
+ * Keeps the day/week/month WeightRollupRealm buckets in step with weight entries.
+ *
+ * Like UserAggregates, every method must run inside the write transaction
+ * that changes the entry. Adds fold into three buckets in O(1); a removal
+ * rescans only its own bucket, and only when it held the bucket's min, max
+ * or last value.
+ *
+ * Bucket starts depend on the time zone, so the zone they were built in is
+ * stored on UserRealm. If the device zone has changed since, the first hook
+ * to run rebuilds the user's buckets in the new zone before adjusting them;
+ * otherwise a removal would look for a bucket start that no longer exists.
+ */
+final class WeightRollups {
+
+    private WeightRollups() {}
+
+    /**
+     * Fold a newly stored entry into its day, week and month buckets
+     */
+    static void onEntryAdded(Realm realm, UserRealm user, WeightEntryRealm entry) {
+        ZoneId zone = ZoneId.systemDefault();
+        if (isStale(user)) {
+            // The rebuild already includes the new entry
+            rebuild(realm, user);
+            return;
+        }
+
+        for (RollupPeriod period : RollupPeriod.values()) {
+            long periodStart = period.periodStart(entry.getTimestampMillis(), zone);
+            WeightRollupRealm rollup = find(realm, entry.getUserId(), period, periodStart);
+            if (rollup == null) {
+                rollup = create(realm, entry.getUserId(), period, periodStart);
+            }
+            fold(rollup, entry);
+        }
+    }
+
+    /**
+     * Take an entry out of its buckets; call before it is deleted or modified
+     */
+    static void onEntryRemoved(Realm realm, UserRealm user, WeightEntryRealm entry) {
+        ZoneId zone = ZoneId.systemDefault();
+        if (isStale(user)) {
+            rebuild(realm, user);
+        }
+        double weight = entry.getWeight();
+
+        for (RollupPeriod period : RollupPeriod.values()) {
+            long periodStart = period.periodStart(entry.getTimestampMillis(), zone);
+            WeightRollupRealm rollup = find(realm, entry.getUserId(), period, periodStart);
+            if (rollup == null) {
+                continue;
+            }
+
+            if (rollup.getCount() <= 1) {
+                rollup.deleteFromRealm();
+            } else if (entry.getId() == rollup.getLastEntryId()
+                    || weight == rollup.getMinWeight() || weight == rollup.getMaxWeight()) {
+                // A boundary value left the bucket: rescan just this bucket
+                recomputeBucket(user, rollup, period, periodStart, entry.getId(), zone);
+            } else {
+                rollup.setCount(rollup.getCount() - 1);
+                rollup.setWeightSum(rollup.getWeightSum() - weight);
+            }
+        }
+    }
+
+    /**
+     * Drop and rebuild every bucket for a user from the raw entries in one pass
+     */
+    static void rebuild(Realm realm, UserRealm user) {
+        deleteForUser(realm, user.getId());
+
+        ZoneId zone = ZoneId.systemDefault();
+        user.setRollupZone(zone.getId());
+        RollupPeriod[] periods = RollupPeriod.values();
+        WeightRollupRealm[] current = new WeightRollupRealm[periods.length];
+
+        // Oldest first, so each bucket's entries arrive contiguously
+        RealmResults<WeightEntryRealm> entries = DatabaseHelper.entriesOf(user)
+                .sort("timestampMillis", Sort.ASCENDING)
+                .findAll();
+
+        for (WeightEntryRealm entry : entries) {
+            for (int i = 0; i < periods.length; i++) {
+                long periodStart = periods[i].periodStart(entry.getTimestampMillis(), zone);
+                if (current[i] == null || current[i].getPeriodStartMillis() != periodStart) {
+                    current[i] = create(realm, user.getId(), periods[i], periodStart);
+                }
+                fold(current[i], entry);
+            }
+        }
+    }
+
+    /**
+     * True if the user's buckets were aligned in a zone other than the device's
+     */
+    static boolean isStale(UserRealm user) {
+        return !ZoneId.systemDefault().getId().equals(user.getRollupZone());
+    }
+
+    static void deleteForUser(Realm realm, int userId) {
+        realm.where(WeightRollupRealm.class)
+                .equalTo("userId", userId)
+                .findAll()
+                .deleteAllFromRealm();
+    }
+
+    private static void recomputeBucket(UserRealm user, WeightRollupRealm rollup, RollupPeriod period,
+                                        long periodStart, int excludedEntryId, ZoneId zone) {
+        RealmResults<WeightEntryRealm> bucketEntries = DatabaseHelper.entriesOf(user)
+                .greaterThanOrEqualTo("timestampMillis", periodStart)
+                .lessThan("timestampMillis", period.nextPeriodStart(periodStart, zone))
+                .notEqualTo("id", excludedEntryId)
+                .findAll();
+
+        rollup.setCount(0);
+        rollup.setWeightSum(0.0);
+        for (WeightEntryRealm bucketEntry : bucketEntries) {
+            fold(rollup, bucketEntry);
+        }
+    }
+
+    private static void fold(WeightRollupRealm rollup, WeightEntryRealm entry) {
+        double weight = entry.getWeight();
+        long timestamp = entry.getTimestampMillis();
+
+        if (rollup.getCount() == 0) {
+            rollup.setMinWeight(weight);
+            rollup.setMaxWeight(weight);
+            setLast(rollup, entry);
+        } else {
+            rollup.setMinWeight(Math.min(rollup.getMinWeight(), weight));
+            rollup.setMaxWeight(Math.max(rollup.getMaxWeight(), weight));
+            if (timestamp > rollup.getLastTimestampMillis()
+                    || (timestamp == rollup.getLastTimestampMillis() && entry.getId() > rollup.getLastEntryId())) {
+                setLast(rollup, entry);
+            }
+        }
+
+        rollup.setCount(rollup.getCount() + 1);
+        rollup.setWeightSum(rollup.getWeightSum() + weight);
+    }
+
+    private static void setLast(WeightRollupRealm rollup, WeightEntryRealm entry) {
+        rollup.setLastWeight(entry.getWeight());
+        rollup.setLastTimestampMillis(entry.getTimestampMillis());
+        rollup.setLastEntryId(entry.getId());
+    }
+
+    private static WeightRollupRealm find(Realm realm, int userId, RollupPeriod period, long periodStart) {
+        return realm.where(WeightRollupRealm.class)
+                .equalTo("key", key(userId, period, periodStart))
+                .findFirst();
+    }
+
+    private static WeightRollupRealm create(Realm realm, int userId, RollupPeriod period, long periodStart) {
+        WeightRollupRealm rollup = realm.createObject(WeightRollupRealm.class, key(userId, period, periodStart));
+        rollup.setUserId(userId);
+        rollup.setPeriod(period.name());
+        rollup.setPeriodStartMillis(periodStart);
+        return rollup;
+    }
+
+    private static String key(int userId, RollupPeriod period, long periodStart) {
+        return userId + "/" + period.name() + "/" + periodStart;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.weighttrackingapp;
+
+/**
+ * Summary statistics over a user's whole weight history.
+ *
+ * Built in one pass by Accumulator, which uses Welford-style running
+ * moments so no entry list is held in memory and the result is stable for
+ * long histories. dataVersion records the UserRealm version it was computed
+ * from, so DatabaseHelper can serve repeat requests from its cache.
+ */
+public final class WeightStatistics {
+
+    private static final double MILLIS_PER_DAY = 24.0 * 60 * 60 * 1000;
+
+    private final long dataVersion;
+    private final int count;
+    private final double meanWeight;
+    private final double standardDeviation;
+    private final double minWeight;
+    private final long minTimestampMillis;
+    private final double maxWeight;
+    private final long maxTimestampMillis;
+    private final double weeklyRate;
+    private final long longestGapMillis;
+    private final long longestGapStartMillis;
+
+    private WeightStatistics(long dataVersion, int count, double meanWeight, double standardDeviation,
+                             double minWeight, long minTimestampMillis, double maxWeight, long maxTimestampMillis,
+                             double weeklyRate, long longestGapMillis, long longestGapStartMillis) {
+        this.dataVersion = dataVersion;
+        this.count = count;
+        this.meanWeight = meanWeight;
+        this.standardDeviation = standardDeviation;
+        this.minWeight = minWeight;
+        this.minTimestampMillis = minTimestampMillis;
+        this.maxWeight = maxWeight;
+        this.maxTimestampMillis = maxTimestampMillis;
+        this.weeklyRate = weeklyRate;
+        this.longestGapMillis = longestGapMillis;
+        this.longestGapStartMillis = longestGapStartMillis;
+    }
+
+    long getDataVersion() {
+        return dataVersion;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getMeanWeight() {
+        return meanWeight;
+    }
+
+    // Sample standard deviation, 0.0 with fewer than two entries
+    public double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    public double getMinWeight() {
+        return minWeight;
+    }
+
+    // Earliest entry at the minimum weight
+    public long getMinTimestampMillis() {
+        return minTimestampMillis;
+    }
+
+    public double getMaxWeight() {
+        return maxWeight;
+    }
+
+    // Earliest entry at the maximum weight
+    public long getMaxTimestampMillis() {
+        return maxTimestampMillis;
+    }
+
+    // Least-squares slope over the whole history in kg per week (negative when losing)
+    public double getWeeklyRate() {
+        return weeklyRate;
+    }
+
+    // Longest time between two consecutive entries, 0 with fewer than two entries
+    public long getLongestGapMillis() {
+        return longestGapMillis;
+    }
+
+    public long getLongestGapStartMillis() {
+        return longestGapStartMillis;
+    }
+
+    public boolean hasEntries() {
+        return count > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "WeightStatistics{" +
+                "count=" + count +
+                ", mean=" + meanWeight +
+                ", stdDev=" + standardDeviation +
+                ", min=" + minWeight +
+                ", max=" + maxWeight +
+                ", weeklyRate=" + weeklyRate +
+                ", longestGapMillis=" + longestGapMillis +
+                '}';
+    }
+
+    /**
+     * Single-pass accumulator; entries must be added oldest first
+     */
+    static final class Accumulator {
+
+        private int count;
+        private double meanWeight;
+        private double weightM2;      // Σ(y - mean y)²
+        private double meanDays;
+        private double daysM2;        // Σ(x - mean x)²
+        private double coMoment;      // Σ(x - mean x)(y - mean y)
+        private double minWeight;
+        private long minTimestampMillis;
+        private double maxWeight;
+        private long maxTimestampMillis;
+        private long firstTimestampMillis;
+        private long previousTimestampMillis;
+        private long longestGapMillis;
+        private long longestGapStartMillis;
+
+        void add(long timestampMillis, double weight) {
+            if (count == 0) {
+                firstTimestampMillis = timestampMillis;
+                minWeight = weight;
+                minTimestampMillis = timestampMillis;
+                maxWeight = weight;
+                maxTimestampMillis = timestampMillis;
+            } else {
+                long gap = timestampMillis - previousTimestampMillis;
+                if (gap > longestGapMillis) {
+                    longestGapMillis = gap;
+                    longestGapStartMillis = previousTimestampMillis;
+                }
+                if (weight < minWeight) {
+                    minWeight = weight;
+                    minTimestampMillis = timestampMillis;
+                }
+                if (weight > maxWeight) {
+                    maxWeight = weight;
+                    maxTimestampMillis = timestampMillis;
+                }
+            }
+            previousTimestampMillis = timestampMillis;
+
+            // Welford update for the weight moments and the day/weight co-moment
+            count++;
+            double days = (timestampMillis - firstTimestampMillis) / MILLIS_PER_DAY;
+            double deltaDays = days - meanDays;
+            double deltaWeight = weight - meanWeight;
+            meanDays += deltaDays / count;
+            meanWeight += deltaWeight / count;
+            daysM2 += deltaDays * (days - meanDays);
+            weightM2 += deltaWeight * (weight - meanWeight);
+            coMoment += deltaDays * (weight - meanWeight);
+        }
+
+        WeightStatistics build(long dataVersion) {
+            double standardDeviation = count > 1 ? Math.sqrt(weightM2 / (count - 1)) : 0.0;
+            double weeklyRate = daysM2 > 0 ? coMoment / daysM2 * 7 : 0.0;
+            return new WeightStatistics(dataVersion, count, meanWeight, standardDeviation,
+                    minWeight, minTimestampMillis, maxWeight, maxTimestampMillis,
+                    weeklyRate, longestGapMillis, longestGapStartMillis);
+        }
+    }
+}
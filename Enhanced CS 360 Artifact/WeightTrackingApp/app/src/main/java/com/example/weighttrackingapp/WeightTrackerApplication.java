@@ -1,26 +1,53 @@
 package com.example.weighttrackingapp;
 
 import android.app.Application;
+import android.content.pm.ApplicationInfo;
+import android.os.StrictMode;
 
 import io.realm.Realm;
 import io.realm.RealmConfiguration;
 
 public class WeightTrackerApplication extends Application {
-    
+
     @Override
     public void onCreate() {
         super.onCreate();
-        
+
         // Initialize Realm
         Realm.init(this);
-        
+
         // Configure Realm
         RealmConfiguration config = new RealmConfiguration.Builder()
                 .name("weight_tracker.realm")
-                .schemaVersion(1)
-                .deleteRealmIfMigrationNeeded() // For development - remove in production
+                .schemaVersion(WeightTrackerMigration.SCHEMA_VERSION)
+                .migration(new WeightTrackerMigration()) // Keeps existing entries across schema changes
+                .compactOnLaunch(RealmCompaction.launchPolicy(this)) // Reclaims space once the file is fragmented
                 .build();
-        
+
         Realm.setDefaultConfiguration(config);
+
+        // First open (migration and any launch compaction) happens off the main thread;
+        // activities wait for RealmCompaction.whenReady() before opening Realm themselves
+        RealmCompaction.openInBackground(this);
+
+        // Debug builds: report disk, Realm and BCrypt work on the UI thread
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            enableStrictMode();
+        }
+    }
+
+    private void enableStrictMode() {
+        StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                .detectDiskReads()
+                .detectDiskWrites()
+                .detectCustomSlowCalls() // RealmScope.acquire() and BCrypt calls
+                .penaltyLog()
+                .penaltyFlashScreen()
+                .build());
+
+        StrictMode.setVmPolicy(new StrictMode.VmPolicy.Builder()
+                .detectLeakedClosableObjects()
+                .penaltyLog()
+                .build());
     }
 }
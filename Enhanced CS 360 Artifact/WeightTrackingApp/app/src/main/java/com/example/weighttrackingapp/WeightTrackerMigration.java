@@ -0,0 +1,322 @@
+package com.example.weighttrackingapp;
+
+import android.util.Log;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Locale;
+
+import io.realm.DynamicRealm;
+import io.realm.DynamicRealmObject;
+import io.realm.FieldAttribute;
+import io.realm.RealmList;
+import io.realm.RealmMigration;
+import io.realm.RealmObjectSchema;
+import io.realm.RealmResults;
+import io.realm.RealmSchema;
+import io.realm.Sort;
+
+/**
+ * Realm schema migrations for weight_tracker.realm.
+ * Each step upgrades the schema by exactly one version so older installs
+ * walk through every step in order.
+ */
+public class WeightTrackerMigration implements RealmMigration {
+
+    private static final String TAG = "WeightTrackerMigration";
+
+    public static final long SCHEMA_VERSION = 12;
+
+    @Override
+    public void migrate(DynamicRealm realm, long oldVersion, long newVersion) {
+        RealmSchema schema = realm.getSchema();
+        Log.d(TAG, "Migrating Realm schema from " + oldVersion + " to " + newVersion);
+
+        // Version 2: indexed epoch-millis timestamp back-filled from date/time strings
+        if (oldVersion < 2) {
+            RealmObjectSchema entrySchema = schema.get("WeightEntryRealm");
+            if (entrySchema != null) {
+                SimpleDateFormat format = new SimpleDateFormat(DatabaseHelper.DATE_TIME_PATTERN, Locale.getDefault());
+                entrySchema
+                        .addField("timestampMillis", long.class, FieldAttribute.INDEXED)
+                        .transform(entry -> entry.setLong("timestampMillis",
+                                parseTimestamp(format, entry.getString("date"), entry.getString("time"))));
+            }
+            oldVersion++;
+        }
+
+        // Version 3: per-model id sequences, seeded from the current max ids
+        if (oldVersion < 3) {
+            schema.create("SequenceRealm")
+                    .addField("name", String.class, FieldAttribute.PRIMARY_KEY, FieldAttribute.REQUIRED)
+                    .addField("value", long.class);
+            seedSequence(realm, "UserRealm");
+            seedSequence(realm, "WeightEntryRealm");
+            oldVersion++;
+        }
+
+        // Version 4: per-user entry aggregates, computed once from existing entries
+        if (oldVersion < 4) {
+            RealmObjectSchema userSchema = schema.get("UserRealm");
+            if (userSchema != null) {
+                userSchema
+                        .addField("entryCount", int.class)
+                        .addField("latestEntryId", int.class)
+                        .addField("latestTimestampMillis", long.class)
+                        .addField("firstTimestampMillis", long.class)
+                        .addField("minWeight", double.class)
+                        .addField("maxWeight", double.class)
+                        .addField("weightSum", double.class)
+                        .transform(WeightTrackerMigration::computeAggregates);
+            }
+            oldVersion++;
+        }
+
+        // Version 5: day/week/month rollups; filled by DatabaseHelper on first read
+        if (oldVersion < 5) {
+            schema.create("WeightRollupRealm")
+                    .addField("key", String.class, FieldAttribute.PRIMARY_KEY, FieldAttribute.REQUIRED)
+                    .addField("userId", int.class, FieldAttribute.INDEXED)
+                    .addField("period", String.class, FieldAttribute.REQUIRED)
+                    .addField("periodStartMillis", long.class, FieldAttribute.INDEXED)
+                    .addField("count", int.class)
+                    .addField("minWeight", double.class)
+                    .addField("maxWeight", double.class)
+                    .addField("weightSum", double.class)
+                    .addField("lastWeight", double.class)
+                    .addField("lastTimestampMillis", long.class)
+                    .addField("lastEntryId", int.class);
+            oldVersion++;
+        }
+
+        // Version 6: smoothed trend weight per entry plus filter state per user
+        if (oldVersion < 6) {
+            RealmObjectSchema entrySchema = schema.get("WeightEntryRealm");
+            RealmObjectSchema userSchema = schema.get("UserRealm");
+            if (entrySchema != null && userSchema != null) {
+                entrySchema.addField("trendWeight", double.class);
+                userSchema
+                        .addField("trendWeight", double.class)
+                        .addField("trendTimestampMillis", long.class)
+                        .addField("trendEntryId", int.class)
+                        .transform(WeightTrackerMigration::computeTrend);
+            }
+            oldVersion++;
+        }
+
+        // Version 7: least-squares sums over the recent window for goal projection
+        if (oldVersion < 7) {
+            RealmObjectSchema userSchema = schema.get("UserRealm");
+            if (userSchema != null) {
+                userSchema
+                        .addField("regressionCount", int.class)
+                        .addField("regressionSumX", double.class)
+                        .addField("regressionSumY", double.class)
+                        .addField("regressionSumXY", double.class)
+                        .addField("regressionSumXX", double.class)
+                        .addField("regressionOriginMillis", long.class)
+                        .addField("regressionWindowStartMillis", long.class)
+                        .transform(WeightTrackerMigration::computeRegression);
+            }
+            oldVersion++;
+        }
+
+        // Version 8: per-user data version for cached statistics
+        if (oldVersion < 8) {
+            RealmObjectSchema userSchema = schema.get("UserRealm");
+            if (userSchema != null) {
+                userSchema.addField("dataVersion", long.class);
+            }
+            oldVersion++;
+        }
+
+        // Version 9: index entry ownership and drop entries leaked by unlink-only deletes
+        if (oldVersion < 9) {
+            RealmObjectSchema entrySchema = schema.get("WeightEntryRealm");
+            if (entrySchema != null) {
+                if (!entrySchema.hasIndex("userId")) {
+                    entrySchema.addIndex("userId");
+                }
+                RealmResults<DynamicRealmObject> orphans = realm.where("WeightEntryRealm")
+                        .rawPredicate("@links.UserRealm.weightEntries.@count == 0")
+                        .findAll();
+                Log.d(TAG, "Deleting " + orphans.size() + " orphaned weight entries");
+                orphans.deleteAllFromRealm();
+            }
+            oldVersion++;
+        }
+
+        // Version 10: index usernames for login and profile lookups
+        if (oldVersion < 10) {
+            RealmObjectSchema userSchema = schema.get("UserRealm");
+            if (userSchema != null && !userSchema.hasIndex("username")) {
+                userSchema.addIndex("username");
+            }
+            oldVersion++;
+        }
+
+        // Version 11: ownership lives only in the indexed WeightEntryRealm.userId
+        if (oldVersion < 11) {
+            RealmObjectSchema userSchema = schema.get("UserRealm");
+            if (userSchema != null && userSchema.hasField("weightEntries")) {
+                // The list was authoritative; make each entry's userId agree before dropping it
+                userSchema.transform(user -> {
+                    int userId = user.getInt("id");
+                    for (DynamicRealmObject entry : user.getList("weightEntries")) {
+                        if (entry.getInt("userId") != userId) {
+                            entry.setInt("userId", userId);
+                        }
+                    }
+                });
+                userSchema.removeField("weightEntries");
+            }
+            oldVersion++;
+        }
+
+        // Version 12: remember the zone rollup buckets were aligned in
+        if (oldVersion < 12) {
+            RealmObjectSchema userSchema = schema.get("UserRealm");
+            if (userSchema != null) {
+                // Existing buckets were built in the zone the device is in now
+                String zone = ZoneId.systemDefault().getId();
+                userSchema
+                        .addField("rollupZone", String.class)
+                        .transform(user -> user.setString("rollupZone", zone));
+            }
+            oldVersion++;
+        }
+    }
+
+    private static void computeRegression(DynamicRealmObject user) {
+        if (user.getInt("entryCount") == 0) {
+            return;
+        }
+
+        // Same window and x origin as WeightRegression.recompute
+        long origin = user.getLong("latestTimestampMillis");
+        long windowStart = origin - WeightRegression.WINDOW_DAYS * 24L * 60 * 60 * 1000;
+        RealmResults<DynamicRealmObject> entries = user.getList("weightEntries").where()
+                .greaterThanOrEqualTo("timestampMillis", windowStart)
+                .findAll();
+
+        int n = 0;
+        double sumX = 0.0;
+        double sumY = 0.0;
+        double sumXY = 0.0;
+        double sumXX = 0.0;
+        for (DynamicRealmObject entry : entries) {
+            double x = (entry.getLong("timestampMillis") - origin) / (24.0 * 60 * 60 * 1000);
+            double y = entry.getDouble("weight");
+            n++;
+            sumX += x;
+            sumY += y;
+            sumXY += x * y;
+            sumXX += x * x;
+        }
+
+        user.setInt("regressionCount", n);
+        user.setDouble("regressionSumX", sumX);
+        user.setDouble("regressionSumY", sumY);
+        user.setDouble("regressionSumXY", sumXY);
+        user.setDouble("regressionSumXX", sumXX);
+        user.setLong("regressionOriginMillis", origin);
+        user.setLong("regressionWindowStartMillis", windowStart);
+    }
+
+    private static void computeTrend(DynamicRealmObject user) {
+        RealmResults<DynamicRealmObject> entries = user.getList("weightEntries").where()
+                .sort(new String[]{"timestampMillis", "id"}, new Sort[]{Sort.ASCENDING, Sort.ASCENDING})
+                .findAll();
+
+        DynamicRealmObject previous = null;
+        for (DynamicRealmObject entry : entries) {
+            double weight = entry.getDouble("weight");
+            entry.setDouble("trendWeight", previous == null
+                    ? weight
+                    : TrendFilter.next(previous.getDouble("trendWeight"), previous.getLong("timestampMillis"),
+                            weight, entry.getLong("timestampMillis")));
+            previous = entry;
+        }
+
+        if (previous != null) {
+            user.setDouble("trendWeight", previous.getDouble("trendWeight"));
+            user.setLong("trendTimestampMillis", previous.getLong("timestampMillis"));
+            user.setInt("trendEntryId", previous.getInt("id"));
+        }
+    }
+
+    private static void computeAggregates(DynamicRealmObject user) {
+        RealmList<DynamicRealmObject> entries = user.getList("weightEntries");
+        int count = 0;
+        int latestId = 0;
+        long latestTimestamp = 0L;
+        long firstTimestamp = 0L;
+        double min = 0.0;
+        double max = 0.0;
+        double sum = 0.0;
+
+        for (DynamicRealmObject entry : entries) {
+            int id = entry.getInt("id");
+            long timestamp = entry.getLong("timestampMillis");
+            double weight = entry.getDouble("weight");
+
+            if (count == 0) {
+                min = weight;
+                max = weight;
+                firstTimestamp = timestamp;
+                latestTimestamp = timestamp;
+                latestId = id;
+            } else {
+                min = Math.min(min, weight);
+                max = Math.max(max, weight);
+                firstTimestamp = Math.min(firstTimestamp, timestamp);
+                if (timestamp > latestTimestamp || (timestamp == latestTimestamp && id > latestId)) {
+                    latestTimestamp = timestamp;
+                    latestId = id;
+                }
+            }
+            sum += weight;
+            count++;
+        }
+
+        user.setInt("entryCount", count);
+        user.setInt("latestEntryId", latestId);
+        user.setLong("latestTimestampMillis", latestTimestamp);
+        user.setLong("firstTimestampMillis", firstTimestamp);
+        user.setDouble("minWeight", min);
+        user.setDouble("maxWeight", max);
+        user.setDouble("weightSum", sum);
+    }
+
+    private static void seedSequence(DynamicRealm realm, String className) {
+        if (realm.getSchema().get(className) == null) {
+            return;
+        }
+        Number maxId = realm.where(className).max("id");
+        DynamicRealmObject sequence = realm.createObject("SequenceRealm", className);
+        sequence.setLong("value", maxId == null ? 0 : maxId.longValue());
+    }
+
+    private static long parseTimestamp(SimpleDateFormat format, String date, String time) {
+        try {
+            Date parsed = format.parse(date + " " + time);
+            return parsed != null ? parsed.getTime() : 0L;
+        } catch (ParseException e) {
+            Log.e(TAG, "Error parsing date during migration: ", e);
+            return 0L;
+        }
+    }
+
+    // Realm compares configurations, so every migration instance must be equal
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof WeightTrackerMigration;
+    }
+
+    @Override
+    public int hashCode() {
+        return WeightTrackerMigration.class.hashCode();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.weighttrackingapp;
+
+import com.example.weighttrackingapp.models.UserRealm;
+import com.example.weighttrackingapp.models.WeightEntryRealm;
+
+import io.realm.RealmResults;
+import io.realm.Sort;
+
+/**
+ * Maintains the smoothed trendWeight on each entry and the filter state on UserRealm.
+ *
+ * Like UserAggregates, every method must run inside the write transaction
+ * that changes the entry. Appending the newest entry is O(1) from the stored
+ * filter state; a back-dated insert, edit or delete recomputes only the
+ * entries from the affected point forward.
+ */
+final class WeightTrend {
+
+    private static final String[] CHRONOLOGICAL = {"timestampMillis", "id"};
+    private static final Sort[] ASCENDING = {Sort.ASCENDING, Sort.ASCENDING};
+    private static final Sort[] DESCENDING = {Sort.DESCENDING, Sort.DESCENDING};
+
+    private WeightTrend() {}
+
+    /**
+     * Fold a newly stored (or just modified) entry into the trend
+     */
+    static void onEntryAdded(UserRealm user, WeightEntryRealm entry) {
+        long timestamp = entry.getTimestampMillis();
+
+        if (user.getTrendEntryId() == 0) {
+            // First entry seeds the filter
+            entry.setTrendWeight(entry.getWeight());
+            setState(user, entry);
+        } else if (timestamp > user.getTrendTimestampMillis()
+                || (timestamp == user.getTrendTimestampMillis() && entry.getId() > user.getTrendEntryId())) {
+            // Newest entry: O(1) step from the stored state
+            entry.setTrendWeight(TrendFilter.next(user.getTrendWeight(), user.getTrendTimestampMillis(),
+                    entry.getWeight(), timestamp));
+            setState(user, entry);
+        } else {
+            recomputeFrom(user, timestamp, 0);
+        }
+    }
+
+    /**
+     * Take an entry out of the trend; call before it is deleted or modified
+     */
+    static void onEntryRemoved(UserRealm user, WeightEntryRealm entry) {
+        recomputeFrom(user, entry.getTimestampMillis(), entry.getId());
+    }
+
+    /**
+     * Repair the trend after several entries were deleted in one transaction;
+     * call after the deletes with the earliest removed timestamp
+     */
+    static void onEntriesRemoved(UserRealm user, long earliestTimestamp) {
+        recomputeFrom(user, earliestTimestamp, 0);
+    }
+
+    /**
+     * Recompute the whole series (imports, repairs)
+     */
+    static void recompute(UserRealm user) {
+        recomputeFrom(user, Long.MIN_VALUE, 0);
+    }
+
+    /**
+     * Recompute trend weights for entries at or after fromTimestamp, seeded from the
+     * entry just before it. excludedEntryId (if non-zero) is treated as already gone.
+     */
+    private static void recomputeFrom(UserRealm user, long fromTimestamp, int excludedEntryId) {
+        WeightEntryRealm seed = DatabaseHelper.entriesOf(user)
+                .lessThan("timestampMillis", fromTimestamp)
+                .notEqualTo("id", excludedEntryId)
+                .sort(CHRONOLOGICAL, DESCENDING)
+                .findFirst();
+
+        RealmResults<WeightEntryRealm> tail = DatabaseHelper.entriesOf(user)
+                .greaterThanOrEqualTo("timestampMillis", fromTimestamp)
+                .notEqualTo("id", excludedEntryId)
+                .sort(CHRONOLOGICAL, ASCENDING)
+                .findAll();
+
+        WeightEntryRealm previous = seed;
+        for (WeightEntryRealm entry : tail) {
+            entry.setTrendWeight(previous == null
+                    ? entry.getWeight()
+                    : TrendFilter.next(previous.getTrendWeight(), previous.getTimestampMillis(),
+                            entry.getWeight(), entry.getTimestampMillis()));
+            previous = entry;
+        }
+
+        if (previous != null) {
+            setState(user, previous);
+        } else {
+            user.setTrendWeight(0.0);
+            user.setTrendTimestampMillis(0L);
+            user.setTrendEntryId(0);
+        }
+    }
+
+    private static void setState(UserRealm user, WeightEntryRealm entry) {
+        user.setTrendWeight(entry.getTrendWeight());
+        user.setTrendTimestampMillis(entry.getTimestampMillis());
+        user.setTrendEntryId(entry.getId());
+    }
+}
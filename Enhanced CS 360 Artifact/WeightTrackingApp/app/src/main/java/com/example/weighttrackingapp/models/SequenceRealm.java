@@ -0,0 +1,25 @@
+package com.example.weighttrackingapp.models;
+
+import io.realm.RealmObject;
+import io.realm.annotations.PrimaryKey;
+import io.realm.annotations.Required;
+
+public class SequenceRealm extends RealmObject {
+    // Simple class name of the model this counter allocates ids for
+    @PrimaryKey
+    @Required
+    private String name;
+    
+    // Last id handed out
+    private long value;
+    
+    // Realm requires empty constructor
+    public SequenceRealm() {}
+    
+    // Getters and setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public long getValue() { return value; }
+    public void setValue(long value) { this.value = value; }
+}
@@ -1,7 +1,7 @@
 package com.example.weighttrackingapp.models;
 
-import io.realm.RealmList;
 import io.realm.RealmObject;
+import io.realm.annotations.Index;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.Required;
 
@@ -9,8 +9,9 @@ public class UserRealm extends RealmObject {
     @PrimaryKey
     private int id;
     
+    @Index
     @Required
-    private String username;
+    private String username; // Unique; enforced by DatabaseHelper.createUser
     
     @Required
     private String passwordHash;
@@ -19,7 +20,36 @@ public class UserRealm extends RealmObject {
     private double currentWeight;
     private double goalWeight;
     
-    private RealmList<WeightEntryRealm> weightEntries;
+    // Entries are owned through the indexed WeightEntryRealm.userId, not a list here
+    
+    // Aggregates over the user's entries, maintained in the same write transaction
+    // as every insert, update and delete (see UserAggregates)
+    private int entryCount;
+    private int latestEntryId;
+    private long latestTimestampMillis;
+    private long firstTimestampMillis;
+    private double minWeight;
+    private double maxWeight;
+    private double weightSum;
+    private long dataVersion; // Bumped on every entry change
+    
+    // Trend filter state: smoothed weight at the newest entry (see WeightTrend)
+    private double trendWeight;
+    private long trendTimestampMillis;
+    private int trendEntryId;
+    
+    // Least-squares sums over the recent regression window (see WeightRegression);
+    // x is days since regressionOriginMillis, y is weight
+    private int regressionCount;
+    private double regressionSumX;
+    private double regressionSumY;
+    private double regressionSumXY;
+    private double regressionSumXX;
+    private long regressionOriginMillis;
+    private long regressionWindowStartMillis;
+    
+    // Time zone the day/week/month rollup buckets were aligned in (see WeightRollups)
+    private String rollupZone;
     
     // Realm requires empty constructor
     public UserRealm() {}
@@ -43,6 +73,60 @@ public class UserRealm extends RealmObject {
     public double getGoalWeight() { return goalWeight; }
     public void setGoalWeight(double goalWeight) { this.goalWeight = goalWeight; }
     
-    public RealmList<WeightEntryRealm> getWeightEntries() { return weightEntries; }
-    public void setWeightEntries(RealmList<WeightEntryRealm> weightEntries) { this.weightEntries = weightEntries; }
+    public int getEntryCount() { return entryCount; }
+    public void setEntryCount(int entryCount) { this.entryCount = entryCount; }
+    
+    public int getLatestEntryId() { return latestEntryId; }
+    public void setLatestEntryId(int latestEntryId) { this.latestEntryId = latestEntryId; }
+    
+    public long getLatestTimestampMillis() { return latestTimestampMillis; }
+    public void setLatestTimestampMillis(long latestTimestampMillis) { this.latestTimestampMillis = latestTimestampMillis; }
+    
+    public long getFirstTimestampMillis() { return firstTimestampMillis; }
+    public void setFirstTimestampMillis(long firstTimestampMillis) { this.firstTimestampMillis = firstTimestampMillis; }
+    
+    public double getMinWeight() { return minWeight; }
+    public void setMinWeight(double minWeight) { this.minWeight = minWeight; }
+    
+    public double getMaxWeight() { return maxWeight; }
+    public void setMaxWeight(double maxWeight) { this.maxWeight = maxWeight; }
+    
+    public double getWeightSum() { return weightSum; }
+    public void setWeightSum(double weightSum) { this.weightSum = weightSum; }
+    
+    public long getDataVersion() { return dataVersion; }
+    public void setDataVersion(long dataVersion) { this.dataVersion = dataVersion; }
+    
+    public double getTrendWeight() { return trendWeight; }
+    public void setTrendWeight(double trendWeight) { this.trendWeight = trendWeight; }
+    
+    public long getTrendTimestampMillis() { return trendTimestampMillis; }
+    public void setTrendTimestampMillis(long trendTimestampMillis) { this.trendTimestampMillis = trendTimestampMillis; }
+    
+    public int getTrendEntryId() { return trendEntryId; }
+    public void setTrendEntryId(int trendEntryId) { this.trendEntryId = trendEntryId; }
+    
+    public int getRegressionCount() { return regressionCount; }
+    public void setRegressionCount(int regressionCount) { this.regressionCount = regressionCount; }
+    
+    public double getRegressionSumX() { return regressionSumX; }
+    public void setRegressionSumX(double regressionSumX) { this.regressionSumX = regressionSumX; }
+    
+    public double getRegressionSumY() { return regressionSumY; }
+    public void setRegressionSumY(double regressionSumY) { this.regressionSumY = regressionSumY; }
+    
+    public double getRegressionSumXY() { return regressionSumXY; }
+    public void setRegressionSumXY(double regressionSumXY) { this.regressionSumXY = regressionSumXY; }
+    
+    public double getRegressionSumXX() { return regressionSumXX; }
+    public void setRegressionSumXX(double regressionSumXX) { this.regressionSumXX = regressionSumXX; }
+    
+    public long getRegressionOriginMillis() { return regressionOriginMillis; }
+    public void setRegressionOriginMillis(long regressionOriginMillis) { this.regressionOriginMillis = regressionOriginMillis; }
+    
+    public long getRegressionWindowStartMillis() { return regressionWindowStartMillis; }
+    public void setRegressionWindowStartMillis(long regressionWindowStartMillis) { this.regressionWindowStartMillis = regressionWindowStartMillis; }
+    
+    public String getRollupZone() { return rollupZone; }
+    public void setRollupZone(String rollupZone) { this.rollupZone = rollupZone; }
 }
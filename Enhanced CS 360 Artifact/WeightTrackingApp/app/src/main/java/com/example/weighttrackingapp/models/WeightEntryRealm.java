@@ -1,6 +1,7 @@
 package com.example.weighttrackingapp.models;
 
 import io.realm.RealmObject;
+import io.realm.annotations.Index;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.Required;
 
@@ -8,7 +9,9 @@ public class WeightEntryRealm extends RealmObject {
     @PrimaryKey
     private int id;
     
+    @Index
     private int userId;
+    
     private double weight;
     
     @Required
@@ -17,8 +20,15 @@ public class WeightEntryRealm extends RealmObject {
     @Required
     private String time;
     
+    // Epoch millis of date + time, indexed for native sort/limit queries
+    @Index
+    private long timestampMillis;
+    
     private String notes;
     
+    // Smoothed weight as of this entry (see WeightTrend)
+    private double trendWeight;
+    
     // Realm requires empty constructor
     public WeightEntryRealm() {}
     
@@ -38,6 +48,12 @@ public class WeightEntryRealm extends RealmObject {
     public String getTime() { return time; }
     public void setTime(String time) { this.time = time; }
     
+    public long getTimestampMillis() { return timestampMillis; }
+    public void setTimestampMillis(long timestampMillis) { this.timestampMillis = timestampMillis; }
+    
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
+    
+    public double getTrendWeight() { return trendWeight; }
+    public void setTrendWeight(double trendWeight) { this.trendWeight = trendWeight; }
 }
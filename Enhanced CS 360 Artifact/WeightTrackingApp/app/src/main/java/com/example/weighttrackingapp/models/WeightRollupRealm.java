@@ -0,0 +1,71 @@
+package com.example.weighttrackingapp.models;
+
+import io.realm.RealmObject;
+import io.realm.annotations.Index;
+import io.realm.annotations.PrimaryKey;
+import io.realm.annotations.Required;
+
+public class WeightRollupRealm extends RealmObject {
+    // "userId/period/periodStartMillis"
+    @PrimaryKey
+    @Required
+    private String key;
+    
+    @Index
+    private int userId;
+    
+    // RollupPeriod name: DAY, WEEK or MONTH
+    @Required
+    private String period;
+    
+    // Local start of the bucket, indexed for range queries
+    @Index
+    private long periodStartMillis;
+    
+    private int count;
+    private double minWeight;
+    private double maxWeight;
+    private double weightSum;
+    
+    // Newest entry in the bucket
+    private double lastWeight;
+    private long lastTimestampMillis;
+    private int lastEntryId;
+    
+    // Realm requires empty constructor
+    public WeightRollupRealm() {}
+    
+    // Getters and setters
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+    
+    public int getUserId() { return userId; }
+    public void setUserId(int userId) { this.userId = userId; }
+    
+    public String getPeriod() { return period; }
+    public void setPeriod(String period) { this.period = period; }
+    
+    public long getPeriodStartMillis() { return periodStartMillis; }
+    public void setPeriodStartMillis(long periodStartMillis) { this.periodStartMillis = periodStartMillis; }
+    
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+    
+    public double getMinWeight() { return minWeight; }
+    public void setMinWeight(double minWeight) { this.minWeight = minWeight; }
+    
+    public double getMaxWeight() { return maxWeight; }
+    public void setMaxWeight(double maxWeight) { this.maxWeight = maxWeight; }
+    
+    public double getWeightSum() { return weightSum; }
+    public void setWeightSum(double weightSum) { this.weightSum = weightSum; }
+    
+    public double getLastWeight() { return lastWeight; }
+    public void setLastWeight(double lastWeight) { this.lastWeight = lastWeight; }
+    
+    public long getLastTimestampMillis() { return lastTimestampMillis; }
+    public void setLastTimestampMillis(long lastTimestampMillis) { this.lastTimestampMillis = lastTimestampMillis; }
+    
+    public int getLastEntryId() { return lastEntryId; }
+    public void setLastEntryId(int lastEntryId) { this.lastEntryId = lastEntryId; }
+}
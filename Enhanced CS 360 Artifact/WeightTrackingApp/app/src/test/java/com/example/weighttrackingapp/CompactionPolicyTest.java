@@ -0,0 +1,40 @@
+package com.example.weighttrackingapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the launch compaction threshold.
+ */
+public class CompactionPolicyTest {
+
+    private static final long MB = 1024L * 1024;
+
+    private final CompactionPolicy policy = new CompactionPolicy(50, 4 * MB);
+
+    @Test
+    public void compactsWhenFreeShareCrossesThreshold() {
+        assertTrue(policy.shouldCompact(20 * MB, 10 * MB, false));
+        assertFalse(policy.shouldCompact(20 * MB, 11 * MB, false));
+    }
+
+    @Test
+    public void smallFilesAreLeftAlone() {
+        assertFalse(policy.shouldCompact(2 * MB, 100 * 1024, false));
+    }
+
+    @Test
+    public void explicitRequestAlwaysCompacts() {
+        assertTrue(policy.shouldCompact(2 * MB, 2 * MB, true));
+        assertFalse(policy.shouldCompact(0, 0, true));
+    }
+
+    @Test
+    public void freePercentIsClamped() {
+        assertEquals(0, CompactionPolicy.freePercent(10 * MB, 12 * MB));
+        assertEquals(75, CompactionPolicy.freePercent(8 * MB, 2 * MB));
+    }
+}
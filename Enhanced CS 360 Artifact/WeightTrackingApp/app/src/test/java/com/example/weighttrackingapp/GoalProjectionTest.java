@@ -0,0 +1,152 @@
+package com.example.weighttrackingapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for goal date projection from regression sums.
+ */
+public class GoalProjectionTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final long ORIGIN = 1_700_000_000_000L;
+
+    @Test
+    public void tooFewEntriesHaveNoProjection() {
+        double[] sums = sums(new double[]{0, 1}, new double[]{80.0, 79.9});
+
+        assertNull(GoalProjection.fromSums(2, sums[0], sums[1], sums[2], sums[3], ORIGIN, ORIGIN + DAY));
+    }
+
+    @Test
+    public void steadyLossProjectsForward() {
+        // Losing 0.1 kg a day from 80 kg: 75 kg is 50 days after day 0, 40 days after the newest entry
+        double[] x = {0, 2, 4, 6, 8, 10};
+        double[] y = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            y[i] = 80.0 - 0.1 * x[i];
+        }
+        double[] sums = sums(x, y);
+        GoalProjection projection = GoalProjection.fromSums(x.length, sums[0], sums[1], sums[2], sums[3],
+                ORIGIN, ORIGIN + 10 * DAY);
+
+        assertEquals(-0.1, projection.getSlopePerDay(), 1e-9);
+        assertEquals(ORIGIN + 50 * DAY, projection.getGoalDateMillis(75.0), 1000);
+    }
+
+    @Test
+    public void gainingWeightNeverReachesLowerGoal() {
+        double[] x = {0, 1, 2, 3};
+        double[] y = {80.0, 80.2, 80.4, 80.6};
+        double[] sums = sums(x, y);
+        GoalProjection projection = GoalProjection.fromSums(x.length, sums[0], sums[1], sums[2], sums[3],
+                ORIGIN, ORIGIN + 3 * DAY);
+
+        assertEquals(-1, projection.getGoalDateMillis(75.0));
+    }
+
+    @Test
+    public void sameDayEntriesHaveNoSlope() {
+        double[] x = {0, 0.01, 0.02};
+        double[] y = {80.0, 79.0, 81.0};
+        double[] sums = sums(x, y);
+
+        assertNull(GoalProjection.fromSums(x.length, sums[0], sums[1], sums[2], sums[3], ORIGIN, ORIGIN));
+    }
+
+    @Test
+    public void shiftedOriginFitsTheSameLine() {
+        double[] x = {0, 2, 4, 6, 8, 10};
+        double[] y = {80.0, 79.9, 79.5, 79.6, 79.2, 79.0};
+        double[] sums = sums(x, y);
+        double[] shifted = GoalProjection.shiftOrigin(x.length, sums[0], sums[1], sums[2], sums[3], 4.0);
+
+        GoalProjection before = GoalProjection.fromSums(x.length, sums[0], sums[1], sums[2], sums[3],
+                ORIGIN, ORIGIN + 10 * DAY);
+        GoalProjection after = GoalProjection.fromSums(x.length, shifted[0], shifted[1], shifted[2], shifted[3],
+                ORIGIN + 4 * DAY, ORIGIN + 10 * DAY);
+
+        assertEquals(before.getSlopePerDay(), after.getSlopePerDay(), 1e-12);
+        assertEquals(before.getFittedWeight(ORIGIN + 7 * DAY), after.getFittedWeight(ORIGIN + 7 * DAY), 1e-9);
+    }
+
+    @Test
+    public void longRunningWindowStaysBoundedAndAccurate() {
+        // Five years of daily weigh-ins through a 28-day window, maintained the
+        // way WeightRegression does it: add the newest, evict the oldest, and
+        // rebase whenever the window start passes the origin
+        int window = WeightRegression.WINDOW_DAYS;
+        int days = 5 * 365;
+        double[] weights = new double[days];
+        for (int d = 0; d < days; d++) {
+            weights[d] = 90.0 - 0.02 * d + 0.3 * Math.sin(d);
+        }
+
+        int n = 0;
+        double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
+        long origin = ORIGIN;
+        for (int d = 0; d < days; d++) {
+            double x = (ORIGIN + d * DAY - origin) / (double) DAY;
+            n++;
+            sumX += x;
+            sumY += weights[d];
+            sumXY += x * weights[d];
+            sumXX += x * x;
+
+            int evicted = d - window - 1;
+            if (evicted >= 0) {
+                double ex = (ORIGIN + evicted * DAY - origin) / (double) DAY;
+                n--;
+                sumX -= ex;
+                sumY -= weights[evicted];
+                sumXY -= ex * weights[evicted];
+                sumXX -= ex * ex;
+            }
+
+            long windowStart = ORIGIN + (d - window) * DAY;
+            if (origin < windowStart) {
+                double[] shifted = GoalProjection.shiftOrigin(n, sumX, sumY, sumXY, sumXX,
+                        (windowStart - origin) / (double) DAY);
+                sumX = shifted[0];
+                sumXY = shifted[2];
+                sumXX = shifted[3];
+                origin = windowStart;
+            }
+
+            assertTrue("sumXX grew to " + sumXX + " on day " + d, sumXX <= n * (double) window * window + 1e-6);
+        }
+
+        // Same window fitted from scratch
+        double[] x = new double[window + 1];
+        double[] y = new double[window + 1];
+        for (int i = 0; i <= window; i++) {
+            x[i] = i;
+            y[i] = weights[days - window - 1 + i];
+        }
+        double[] fresh = sums(x, y);
+        long freshOrigin = ORIGIN + (days - window - 1) * DAY;
+        long newest = ORIGIN + (days - 1) * DAY;
+
+        GoalProjection incremental = GoalProjection.fromSums(n, sumX, sumY, sumXY, sumXX, origin, newest);
+        GoalProjection expected = GoalProjection.fromSums(x.length, fresh[0], fresh[1], fresh[2], fresh[3],
+                freshOrigin, newest);
+
+        assertEquals(expected.getEntryCount(), incremental.getEntryCount());
+        assertEquals(expected.getSlopePerDay(), incremental.getSlopePerDay(), 1e-9);
+        assertEquals(expected.getFittedWeight(newest), incremental.getFittedWeight(newest), 1e-6);
+    }
+
+    private static double[] sums(double[] x, double[] y) {
+        double[] sums = new double[4];
+        for (int i = 0; i < x.length; i++) {
+            sums[0] += x[i];
+            sums[1] += y[i];
+            sums[2] += x[i] * y[i];
+            sums[3] += x[i] * x[i];
+        }
+        return sums;
+    }
+}
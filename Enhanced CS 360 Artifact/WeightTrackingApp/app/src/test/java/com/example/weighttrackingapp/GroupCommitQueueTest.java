@@ -0,0 +1,131 @@
+package com.example.weighttrackingapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for coalescing writes into shared batches.
+ */
+public class GroupCommitQueueTest {
+
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+    // Even numbers succeed, odd numbers report false, negative numbers throw
+    private boolean[] commit(List<Integer> batch) {
+        batchSizes.add(batch.size());
+        boolean[] results = new boolean[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.get(i) < 0) {
+                throw new IllegalStateException("bad write " + batch.get(i));
+            }
+            results[i] = batch.get(i) % 2 == 0;
+        }
+        return results;
+    }
+
+    @Test
+    public void burstIsCommittedTogether() throws Exception {
+        GroupCommitQueue<Integer> queue = new GroupCommitQueue<>("test-queue", 500, 100, this::commit, Runnable::run);
+
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(queue.submit(i));
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i % 2 == 0, futures.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(Collections.singletonList(5), batchSizes);
+        assertEquals(1, queue.getMetrics().getBatchCount());
+        assertEquals(5, queue.getMetrics().getLargestBatch());
+        assertEquals(5.0, queue.getMetrics().getAverageBatchSize(), 1e-9);
+    }
+
+    @Test
+    public void batchSizeIsCapped() throws Exception {
+        GroupCommitQueue<Integer> queue = new GroupCommitQueue<>("test-queue", 500, 3, this::commit, Runnable::run);
+
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            futures.add(queue.submit(i * 2));
+        }
+        for (CompletableFuture<Boolean> future : futures) {
+            assertTrue(future.get(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(3, queue.getMetrics().getLargestBatch());
+        assertEquals(7, queue.getMetrics().getOperationCount());
+    }
+
+    @Test
+    public void failedBatchIsRetriedOneByOne() throws Exception {
+        GroupCommitQueue<Integer> queue = new GroupCommitQueue<>("test-queue", 500, 100, this::commit, Runnable::run);
+
+        CompletableFuture<Boolean> first = queue.submit(2);
+        CompletableFuture<Boolean> bad = queue.submit(-1);
+        CompletableFuture<Boolean> last = queue.submit(4);
+
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(last.get(5, TimeUnit.SECONDS));
+        try {
+            bad.get(5, TimeUnit.SECONDS);
+            fail("Expected the failing write to complete exceptionally");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertFalse(queue.getMetrics().getLargestBatch() > 1);
+        assertEquals(2, queue.getMetrics().getOperationCount());
+    }
+
+    @Test
+    public void errorFromCommitterFailsOnlyItsWrite() throws Exception {
+        GroupCommitQueue<Integer> queue = new GroupCommitQueue<>("test-queue", 10, 100, batch -> {
+            if (batch.contains(7)) {
+                throw new AssertionError("corrupt write");
+            }
+            return commit(batch);
+        }, Runnable::run);
+
+        CompletableFuture<Boolean> bad = queue.submit(7);
+        try {
+            bad.get(5, TimeUnit.SECONDS);
+            fail("Expected the failing write to complete exceptionally");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof AssertionError);
+        }
+
+        // The worker is still draining
+        assertTrue(queue.submit(2).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void malformedResultsFailTheBatchWithoutRetrying() throws Exception {
+        List<List<Integer>> commits = Collections.synchronizedList(new ArrayList<>());
+        GroupCommitQueue<Integer> queue = new GroupCommitQueue<>("test-queue", 10, 100, batch -> {
+            commits.add(new ArrayList<>(batch));
+            return batch.contains(9) ? new boolean[0] : commit(batch);
+        }, Runnable::run);
+
+        CompletableFuture<Boolean> bad = queue.submit(9);
+        try {
+            bad.get(5, TimeUnit.SECONDS);
+            fail("Expected the write to complete exceptionally");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        assertTrue(queue.submit(4).get(5, TimeUnit.SECONDS));
+        assertEquals(2, commits.size());
+    }
+}
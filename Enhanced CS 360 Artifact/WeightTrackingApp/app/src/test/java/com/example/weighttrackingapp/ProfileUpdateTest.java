@@ -0,0 +1,46 @@
+package com.example.weighttrackingapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the partial profile update builder.
+ */
+public class ProfileUpdateTest {
+
+    @Test
+    public void emptyBuilderHasNothingToWrite() {
+        ProfileUpdate update = new ProfileUpdate.Builder().build();
+
+        assertTrue(update.isEmpty());
+        assertFalse(update.hasStartingWeight());
+        assertFalse(update.hasCurrentWeight());
+        assertFalse(update.hasGoalWeight());
+    }
+
+    @Test
+    public void onlySetFieldsAreIncluded() {
+        ProfileUpdate update = new ProfileUpdate.Builder()
+                .goalWeight(70.0)
+                .build();
+
+        assertFalse(update.isEmpty());
+        assertTrue(update.hasGoalWeight());
+        assertEquals(70.0, update.getGoalWeight(), 1e-9);
+        assertFalse(update.hasCurrentWeight());
+        assertFalse(update.hasStartingWeight());
+    }
+
+    @Test
+    public void zeroIsAValueNotAnAbsence() {
+        ProfileUpdate update = new ProfileUpdate.Builder()
+                .currentWeight(0.0)
+                .build();
+
+        assertTrue(update.hasCurrentWeight());
+        assertEquals(0.0, update.getCurrentWeight(), 1e-9);
+    }
+}
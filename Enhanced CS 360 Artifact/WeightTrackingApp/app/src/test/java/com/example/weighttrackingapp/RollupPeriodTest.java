@@ -0,0 +1,43 @@
+package com.example.weighttrackingapp;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for rollup bucket boundaries.
+ */
+public class RollupPeriodTest {
+
+    private static final ZoneId ZONE = ZoneId.of("America/New_York");
+
+    @Test
+    public void dayStartsAtLocalMidnight() {
+        long timestamp = millis(2024, 3, 14, 18, 45);
+
+        assertEquals(millis(2024, 3, 14, 0, 0), RollupPeriod.DAY.periodStart(timestamp, ZONE));
+        assertEquals(millis(2024, 3, 15, 0, 0), RollupPeriod.DAY.nextPeriodStart(millis(2024, 3, 14, 0, 0), ZONE));
+    }
+
+    @Test
+    public void weekStartsOnMonday() {
+        // Sunday 2024-03-17 belongs to the ISO week starting Monday 2024-03-11
+        assertEquals(millis(2024, 3, 11, 0, 0), RollupPeriod.WEEK.periodStart(millis(2024, 3, 17, 23, 59), ZONE));
+        assertEquals(millis(2024, 3, 18, 0, 0), RollupPeriod.WEEK.periodStart(millis(2024, 3, 18, 0, 0), ZONE));
+    }
+
+    @Test
+    public void monthBoundariesAcrossDaylightSavingChange() {
+        long start = RollupPeriod.MONTH.periodStart(millis(2024, 3, 31, 12, 0), ZONE);
+
+        assertEquals(millis(2024, 3, 1, 0, 0), start);
+        assertEquals(millis(2024, 4, 1, 0, 0), RollupPeriod.MONTH.nextPeriodStart(start, ZONE));
+    }
+
+    private static long millis(int year, int month, int day, int hour, int minute) {
+        return LocalDateTime.of(year, month, day, hour, minute).atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
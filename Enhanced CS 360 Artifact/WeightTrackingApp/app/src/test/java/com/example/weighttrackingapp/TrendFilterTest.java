@@ -0,0 +1,45 @@
+package com.example.weighttrackingapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the time-aware trend filter.
+ */
+public class TrendFilterTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void oneDayMovesTenPercent() {
+        assertEquals(81.0, TrendFilter.next(80.0, 0L, 90.0, DAY), DELTA);
+    }
+
+    @Test
+    public void sameInstantLeavesTrendUnchanged() {
+        assertEquals(80.0, TrendFilter.next(80.0, DAY, 90.0, DAY), DELTA);
+    }
+
+    @Test
+    public void longerGapsMoveFurther() {
+        double afterDay = TrendFilter.next(80.0, 0L, 90.0, DAY);
+        double afterWeek = TrendFilter.next(80.0, 0L, 90.0, 7 * DAY);
+
+        assertTrue(afterWeek > afterDay);
+        assertTrue(afterWeek < 90.0);
+    }
+
+    @Test
+    public void dailyStepsMatchOneCombinedGap() {
+        // Constant weight: seven one-day steps equal one seven-day step
+        double trend = 80.0;
+        for (int day = 1; day <= 7; day++) {
+            trend = TrendFilter.next(trend, (day - 1) * DAY, 90.0, day * DAY);
+        }
+
+        assertEquals(TrendFilter.next(80.0, 0L, 90.0, 7 * DAY), trend, DELTA);
+    }
+}
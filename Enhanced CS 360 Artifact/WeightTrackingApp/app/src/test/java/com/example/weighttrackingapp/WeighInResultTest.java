@@ -0,0 +1,91 @@
+package com.example.weighttrackingapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for achievement detection on a recorded weigh-in.
+ */
+public class WeighInResultTest {
+
+    @Test
+    public void crossingGoalIsReported() {
+        WeighInResult result = WeighInResult.of(1, 74.8, 75.3, 74.8, 75.0, 90.0, 12);
+
+        assertTrue(result.isGoalReached());
+    }
+
+    @Test
+    public void stayingBelowGoalIsNotReportedAgain() {
+        WeighInResult result = WeighInResult.of(1, 74.0, 74.8, 74.0, 75.0, 90.0, 13);
+
+        assertFalse(result.isGoalReached());
+    }
+
+    @Test
+    public void noGoalSetNeverReportsGoal() {
+        WeighInResult result = WeighInResult.of(1, 60.0, 80.0, 60.0, 0.0, 90.0, 2);
+
+        assertFalse(result.isGoalReached());
+    }
+
+    @Test
+    public void crossingMilestoneReportsHighestStep() {
+        // 90 -> 84.9 kg: 5.1 kg lost, previously 4.5 kg
+        WeighInResult result = WeighInResult.of(1, 84.9, 85.5, 84.9, 70.0, 90.0, 5);
+
+        assertEquals(5, result.getMilestoneKg());
+    }
+
+    @Test
+    public void lossWithinStepHasNoMilestone() {
+        WeighInResult result = WeighInResult.of(1, 83.0, 84.0, 83.0, 70.0, 90.0, 5);
+
+        assertEquals(0, result.getMilestoneKg());
+    }
+
+    @Test
+    public void gainHasNoMilestone() {
+        WeighInResult result = WeighInResult.of(1, 86.0, 84.0, 86.0, 70.0, 90.0, 5);
+
+        assertEquals(0, result.getMilestoneKg());
+        assertFalse(result.isGoalReached());
+    }
+
+    @Test
+    public void backdatedEntryLeavingCurrentWeightUnchangedCrossesNothing() {
+        WeighInResult result = WeighInResult.of(1, 60.0, 76.0, 76.0, 75.0, 90.0, 20);
+
+        assertFalse(result.isGoalReached());
+        assertEquals(0, result.getMilestoneKg());
+        assertEquals(60.0, result.getWeight(), 1e-9);
+    }
+
+    @Test
+    public void firstWeighInAtGoalIsReported() {
+        // No previous weight: measured from the 90 kg starting weight
+        WeighInResult result = WeighInResult.of(1, 74.5, 0.0, 74.5, 75.0, 90.0, 1);
+
+        assertTrue(result.isGoalReached());
+        assertEquals(15, result.getMilestoneKg());
+    }
+
+    @Test
+    public void firstWeighInAtGoalWithoutStartingWeightIsReported() {
+        WeighInResult result = WeighInResult.of(1, 75.0, 0.0, 75.0, 75.0, 0.0, 1);
+
+        assertTrue(result.isGoalReached());
+        assertEquals(0, result.getMilestoneKg());
+    }
+
+    @Test
+    public void firstWeighInAboveGoalIsNotReported() {
+        WeighInResult result = WeighInResult.of(1, 88.0, 0.0, 88.0, 75.0, 90.0, 1);
+
+        assertFalse(result.isGoalReached());
+        assertEquals(0, result.getMilestoneKg());
+    }
+}
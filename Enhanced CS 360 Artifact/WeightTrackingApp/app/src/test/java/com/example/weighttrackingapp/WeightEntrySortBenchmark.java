@@ -0,0 +1,151 @@
+package com.example.weighttrackingapp;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Microbenchmark for recent-entry ordering, run on the host JVM.
+ * Compares the old per-comparison SimpleDateFormat comparator against the
+ * precomputed epoch key, and logs latency and allocated bytes at 1k, 10k
+ * and 100k entries. Skipped unless run with ./gradlew test -Pbenchmarks.
+ */
+public class WeightEntrySortBenchmark {
+
+    private static final Logger LOG = Logger.getLogger("WeightEntrySortBenchmark");
+
+    private static final int[] SIZES = {1_000, 10_000, 100_000};
+    private static final int TOP_K = 5;
+
+    // Comparator DatabaseHelper.getRecentWeightEntries used before the sort key existed
+    private static final Comparator<WeightEntry> LEGACY_COMPARATOR = (e1, e2) -> {
+        try {
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
+            Date d1 = format.parse(e1.getDate() + " " + e1.getTime());
+            Date d2 = format.parse(e2.getDate() + " " + e2.getTime());
+            return d2.compareTo(d1); // Descending
+        } catch (Exception e) {
+            return 0;
+        }
+    };
+
+    // Newest first on the precomputed key, id tie-break
+    private static final Comparator<WeightEntry> KEYED_COMPARATOR = (e1, e2) -> {
+        int byTime = Long.compare(e2.getTimestampMillis(), e1.getTimestampMillis());
+        return byTime != 0 ? byTime : Integer.compare(e2.getId(), e1.getId());
+    };
+
+    @Test
+    public void precomputedKeys_matchLegacyOrder_andReportCost() {
+        assumeTrue("Benchmarks are opt-in", Boolean.getBoolean("benchmarks"));
+
+        for (int size : SIZES) {
+            List<WeightEntry> entries = buildEntries(size);
+
+            List<WeightEntry> legacy = new ArrayList<>(entries);
+            Measurement legacyCost = measure(() -> legacy.sort(LEGACY_COMPARATOR));
+
+            List<WeightEntry> keyed = new ArrayList<>(entries);
+            Measurement keyedCost = measure(() -> keyed.sort(KEYED_COMPARATOR));
+
+            long[] topKeys = new long[TOP_K];
+            Measurement topKCost = measure(() -> selectTopKeys(entries, topKeys));
+
+            report(size, "legacy-sort", legacyCost);
+            report(size, "keyed-sort", keyedCost);
+            report(size, "keyed-top" + TOP_K, topKCost);
+
+            // Timestamps are unique, so both orderings must agree exactly
+            for (int i = 0; i < size; i++) {
+                assertEquals(legacy.get(i).getId(), keyed.get(i).getId());
+            }
+            for (int i = 0; i < TOP_K; i++) {
+                assertEquals(keyed.get(i).getTimestampMillis(), topKeys[i]);
+            }
+        }
+    }
+
+    // Single pass over primitive keys, keeping the K largest in descending order
+    private static void selectTopKeys(List<WeightEntry> entries, long[] top) {
+        int filled = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            long key = entries.get(i).getTimestampMillis();
+            if (filled < top.length) {
+                filled++;
+            } else if (key <= top[top.length - 1]) {
+                continue;
+            }
+            int pos = filled - 1;
+            while (pos > 0 && top[pos - 1] < key) {
+                top[pos] = top[pos - 1];
+                pos--;
+            }
+            top[pos] = key;
+        }
+    }
+
+    private static List<WeightEntry> buildEntries(int size) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
+        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss", Locale.getDefault());
+        long start = 1_500_000_000_000L;
+
+        List<WeightEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // Whole seconds, ~3 weigh-ins per day, unique per entry
+            long timestamp = start + i * 28_800_000L + (i % 60) * 1_000L;
+            Date date = new Date(timestamp);
+            entries.add(new WeightEntry(i + 1, 1, 70 + (i % 100) / 10.0,
+                    dateFormat.format(date), timeFormat.format(date), "", timestamp));
+        }
+        Collections.shuffle(entries, new Random(42));
+        return entries;
+    }
+
+    // Allocation counters are a HotSpot extension; -1 where the JVM lacks them
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static Measurement measure(Runnable work) {
+        long allocatedBefore = allocatedBytes();
+        long startNanos = System.nanoTime();
+        work.run();
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long allocatedAfter = allocatedBytes();
+
+        return new Measurement(elapsedNanos, allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore);
+    }
+
+    private static void report(int size, String strategy, Measurement m) {
+        LOG.info(String.format(Locale.US, "%-8d %-14s %10.2f ms %12s",
+                size, strategy, m.elapsedNanos / 1_000_000.0,
+                m.allocatedBytes < 0 ? "n/a" : (m.allocatedBytes / 1024) + " KB"));
+    }
+
+    private static final class Measurement {
+        final long elapsedNanos;
+        final long allocatedBytes;
+
+        Measurement(long elapsedNanos, long allocatedBytes) {
+            this.elapsedNanos = elapsedNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+    }
+}
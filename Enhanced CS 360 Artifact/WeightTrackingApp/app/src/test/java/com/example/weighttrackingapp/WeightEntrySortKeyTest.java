@@ -0,0 +1,58 @@
+package com.example.weighttrackingapp;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the epoch sort key computed once per entry.
+ */
+public class WeightEntrySortKeyTest {
+
+    private static SimpleDateFormat utcFormat() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format;
+    }
+
+    @Test
+    public void keyIsEpochMillisOfDateAndTime() {
+        assertEquals(1_700_000_000_000L, WeightEntry.sortKey(utcFormat(), "2023-11-14", "22:13:20"));
+    }
+
+    @Test
+    public void keyOrderMatchesChronologicalOrder() {
+        // Crosses day, month and year boundaries, where string order of the time alone is wrong
+        List<String[]> chronological = Arrays.asList(
+                new String[]{"2023-12-31", "23:59:59"},
+                new String[]{"2024-01-01", "00:00:00"},
+                new String[]{"2024-01-01", "09:30:00"},
+                new String[]{"2024-01-31", "08:00:00"},
+                new String[]{"2024-02-01", "07:00:00"});
+
+        SimpleDateFormat format = utcFormat();
+        List<Long> keys = new ArrayList<>();
+        for (String[] dateTime : chronological) {
+            keys.add(WeightEntry.sortKey(format, dateTime[0], dateTime[1]));
+        }
+
+        for (int i = 1; i < keys.size(); i++) {
+            assertEquals(-1, Long.signum(keys.get(i - 1) - keys.get(i)));
+        }
+    }
+
+    @Test
+    public void unparseableValuesHaveNoKey() {
+        SimpleDateFormat format = utcFormat();
+
+        assertEquals(0L, WeightEntry.sortKey(format, "Yesterday", "08:00:00"));
+        assertEquals(0L, WeightEntry.sortKey(format, null, null));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.weighttrackingapp;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Unit tests for the streaming CSV codec used by weight history export/import.
+ */
+public class WeightHistoryCsvTest {
+
+    @Test
+    public void roundTripsRowsWithQuotedNotes() throws IOException {
+        StringWriter out = new StringWriter();
+        WeightHistoryCsv.writeHeader(out);
+        WeightHistoryCsv.writeRow(out, "2024-01-02", "08:15:00", 80.5, "");
+        WeightHistoryCsv.writeRow(out, "2024-01-03", "07:45:00", 80.1, "after run, \"felt good\"");
+        WeightHistoryCsv.writeRow(out, "2024-01-04", "07:50:00", 79.9, "line one\nline two");
+
+        List<WeightEntry> entries = readAll(out.toString(), 7);
+
+        assertEquals(3, entries.size());
+        assertEquals("2024-01-02", entries.get(0).getDate());
+        assertEquals("08:15:00", entries.get(0).getTime());
+        assertEquals(80.5, entries.get(0).getWeight(), 0.0);
+        assertEquals(7, entries.get(0).getUserId());
+        assertEquals("after run, \"felt good\"", entries.get(1).getNotes());
+        assertEquals("line one\nline two", entries.get(2).getNotes());
+    }
+
+    @Test
+    public void skipsMalformedRowsAndCountsThem() {
+        String csv = "date,time,weight,notes\r\n"
+                + "2024-01-02,08:00:00,81.0,\r\n"
+                + "2024-01-03,08:00:00,not-a-number,\r\n"
+                + "2024-01-04,,80.0,\r\n"
+                + "\r\n"
+                + "2024-01-05,08:00:00,80.2\r\n";
+
+        WeightHistoryCsv.RowReader rows = WeightHistoryCsv.rows(new StringReader(csv), 1);
+        List<WeightEntry> entries = new ArrayList<>();
+        for (WeightEntry entry : rows) {
+            entries.add(entry);
+        }
+
+        assertEquals(2, entries.size());
+        assertEquals(80.2, entries.get(1).getWeight(), 0.0);
+        assertEquals("", entries.get(1).getNotes());
+        assertEquals(2, rows.getSkippedRows());
+    }
+
+    @Test
+    public void streamsLargeInputOneRowAtATime() {
+        int rowCount = 100_000;
+        StringBuilder csv = new StringBuilder(WeightHistoryCsv.HEADER).append('\n');
+        for (int i = 0; i < rowCount; i++) {
+            csv.append("2024-01-01,08:00:00,").append(70 + (i % 100) / 10.0).append(",\n");
+        }
+
+        Iterator<WeightEntry> iterator = WeightHistoryCsv.rows(new StringReader(csv.toString()), 1).iterator();
+        int parsed = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            parsed++;
+        }
+
+        assertEquals(rowCount, parsed);
+        assertFalse(iterator.hasNext());
+    }
+
+    private static List<WeightEntry> readAll(String csv, int userId) {
+        List<WeightEntry> entries = new ArrayList<>();
+        for (WeightEntry entry : WeightHistoryCsv.rows(new StringReader(csv), userId)) {
+            entries.add(entry);
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.weighttrackingapp;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Unit tests for the single-pass statistics accumulator.
+ */
+public class WeightStatisticsTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final long START = 1_700_000_000_000L;
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void emptyHistoryHasNoEntries() {
+        WeightStatistics statistics = new WeightStatistics.Accumulator().build(0L);
+
+        assertFalse(statistics.hasEntries());
+        assertEquals(0.0, statistics.getStandardDeviation(), DELTA);
+        assertEquals(0L, statistics.getLongestGapMillis());
+    }
+
+    @Test
+    public void matchesTwoPassResults() {
+        long[] timestamps = {START, START + DAY, START + 2 * DAY, START + 6 * DAY, START + 7 * DAY};
+        double[] weights = {80.0, 79.6, 79.9, 78.8, 78.5};
+
+        WeightStatistics.Accumulator accumulator = new WeightStatistics.Accumulator();
+        for (int i = 0; i < timestamps.length; i++) {
+            accumulator.add(timestamps[i], weights[i]);
+        }
+        WeightStatistics statistics = accumulator.build(3L);
+
+        double mean = 0;
+        for (double weight : weights) {
+            mean += weight / weights.length;
+        }
+        double squares = 0;
+        for (double weight : weights) {
+            squares += (weight - mean) * (weight - mean);
+        }
+
+        assertEquals(3L, statistics.getDataVersion());
+        assertEquals(5, statistics.getCount());
+        assertEquals(mean, statistics.getMeanWeight(), DELTA);
+        assertEquals(Math.sqrt(squares / (weights.length - 1)), statistics.getStandardDeviation(), DELTA);
+        assertEquals(78.5, statistics.getMinWeight(), DELTA);
+        assertEquals(START + 7 * DAY, statistics.getMinTimestampMillis());
+        assertEquals(80.0, statistics.getMaxWeight(), DELTA);
+        assertEquals(START, statistics.getMaxTimestampMillis());
+        assertEquals(4 * DAY, statistics.getLongestGapMillis());
+        assertEquals(START + 2 * DAY, statistics.getLongestGapStartMillis());
+    }
+
+    @Test
+    public void weeklyRateIsLeastSquaresSlope() {
+        // Losing exactly 0.1 kg a day
+        WeightStatistics.Accumulator accumulator = new WeightStatistics.Accumulator();
+        for (int day = 0; day < 30; day++) {
+            accumulator.add(START + day * DAY, 90.0 - 0.1 * day);
+        }
+
+        assertEquals(-0.7, accumulator.build(0L).getWeeklyRate(), 1e-9);
+    }
+
+    @Test
+    public void fiftyThousandEntriesInOnePass() {
+        int size = 50_000;
+        long startTime = System.nanoTime();
+
+        WeightStatistics.Accumulator accumulator = new WeightStatistics.Accumulator();
+        for (int i = 0; i < size; i++) {
+            accumulator.add(START + i * (DAY / 4), 80.0 + Math.sin(i / 10.0));
+        }
+        WeightStatistics statistics = accumulator.build(0L);
+
+        double elapsedMillis = (System.nanoTime() - startTime) / 1_000_000.0;
+        System.out.println(String.format(Locale.US, "statistics over %d entries: %.2f ms", size, elapsedMillis));
+        assertEquals(size, statistics.getCount());
+    }
+}